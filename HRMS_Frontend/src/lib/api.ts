@@ -27,6 +27,20 @@ export interface UserInfo {
   companyLogo?: string | null; // URL to company logo
 }
 
+// Search hit from /employees/search; field names match Employee
+export interface EmployeeSearchResult {
+  id: number;
+  employeeId: string;
+  firstName: string;
+  lastName: string;
+  fullName: string;
+  email: string;
+  status: string;
+  department: string | null;
+  designation: string | null;
+  score: number;
+}
+
 export interface Employee {
   id: number;
   employeeId: string;
@@ -81,6 +95,34 @@ export interface LeaveApplication {
   isHalfDay: boolean;
 }
 
+// Row of the paged HR leave lists (/all, /status/{status}, /approved, /rejected)
+export interface LeaveApplicationSummary {
+  id: number;
+  startDate: string;
+  endDate: string;
+  numberOfDays: number;
+  durationMinutes: number;
+  isHalfDay: boolean;
+  status: string;
+  reason: string;
+  createdAt: string;
+  leaveTypeId: number;
+  leaveTypeName: string;
+  employeeId: number;
+  employeeName: string;
+  employeeCode: string;
+  departmentName: string | null;
+}
+
+export interface LeaveListParams {
+  page?: number;
+  size?: number;
+  departmentId?: number;
+  leaveTypeId?: number;
+  startDate?: string;
+  endDate?: string;
+}
+
 export interface LeaveType {
   id: number;
   name: string;
@@ -378,21 +420,27 @@ export const employeeApi = {
   },
 
   search: (keyword: string, page = 0, size = 10) => {
-    return apiRequest<{ content: Employee[]; totalElements: number; totalPages: number }>(
+    return apiRequest<{ content: EmployeeSearchResult[]; totalElements: number; totalPages: number }>(
       `/employees/search?keyword=${keyword}&page=${page}&size=${size}`
     );
   },
 
-  getByDepartment: (departmentId: number): Promise<Employee[]> => {
-    return apiRequest<Employee[]>(`/employees/department/${departmentId}`);
+  getByDepartment: (departmentId: number, page = 0, size = 20) => {
+    return apiRequest<{ content: Employee[]; totalElements: number; totalPages: number }>(
+      `/employees/department/${departmentId}?page=${page}&size=${size}`
+    );
   },
 
-  getByRole: (role: string): Promise<Employee[]> => {
-    return apiRequest<Employee[]>(`/employees/role/${role}`);
+  getByRole: (role: string, page = 0, size = 20) => {
+    return apiRequest<{ content: Employee[]; totalElements: number; totalPages: number }>(
+      `/employees/role/${role}?page=${page}&size=${size}`
+    );
   },
 
-  getByStatus: (status: string): Promise<Employee[]> => {
-    return apiRequest<Employee[]>(`/employees/status/${status}`);
+  getByStatus: (status: string, page = 0, size = 20) => {
+    return apiRequest<{ content: Employee[]; totalElements: number; totalPages: number }>(
+      `/employees/status/${status}?page=${page}&size=${size}`
+    );
   },
 
   changeStatus: (id: number, status: string): Promise<Employee> => {
@@ -529,6 +577,13 @@ export const attendanceApi = {
 };
 
 // ==================== Leave Application API ====================
+// Query string for the paged leave lists; unset filters are left out
+const leaveListQuery = (params?: LeaveListParams & { status?: string }): string => {
+  const entries = Object.entries(params || {}).filter(([, value]) => value !== undefined && value !== '');
+  const query = new URLSearchParams(entries.map(([key, value]) => [key, String(value)])).toString();
+  return query ? `?${query}` : '';
+};
+
 export const leaveApi = {
   apply: (data: {
     leaveTypeId: number;
@@ -584,24 +639,36 @@ export const leaveApi = {
     return apiRequest<LeaveApplication[]>('/leave-applications/pending-approvals');
   },
 
-  getByStatus: (status: string): Promise<LeaveApplication[]> => {
-    return apiRequest<LeaveApplication[]>(`/leave-applications/status/${status}`);
+  getPendingApprovalsCount: (): Promise<{ count: number }> => {
+    return apiRequest<{ count: number }>('/leave-applications/pending-approvals/count');
+  },
+
+  getByStatus: (status: string, params?: LeaveListParams) => {
+    return apiRequest<{ content: LeaveApplicationSummary[]; totalElements: number; totalPages: number }>(
+      `/leave-applications/status/${status}${leaveListQuery(params)}`
+    );
   },
 
   getEmployeeLeaves: (employeeId: number): Promise<LeaveApplication[]> => {
     return apiRequest<LeaveApplication[]>(`/leave-applications/employee/${employeeId}`);
   },
 
-  getAll: (): Promise<LeaveApplication[]> => {
-    return apiRequest<LeaveApplication[]>('/leave-applications/all');
+  getAll: (params?: LeaveListParams & { status?: string }) => {
+    return apiRequest<{ content: LeaveApplicationSummary[]; totalElements: number; totalPages: number }>(
+      `/leave-applications/all${leaveListQuery(params)}`
+    );
   },
 
-  getApproved: (): Promise<LeaveApplication[]> => {
-    return apiRequest<LeaveApplication[]>('/leave-applications/approved');
+  getApproved: (params?: LeaveListParams) => {
+    return apiRequest<{ content: LeaveApplicationSummary[]; totalElements: number; totalPages: number }>(
+      `/leave-applications/approved${leaveListQuery(params)}`
+    );
   },
 
-  getRejected: (): Promise<LeaveApplication[]> => {
-    return apiRequest<LeaveApplication[]>('/leave-applications/rejected');
+  getRejected: (params?: LeaveListParams) => {
+    return apiRequest<{ content: LeaveApplicationSummary[]; totalElements: number; totalPages: number }>(
+      `/leave-applications/rejected${leaveListQuery(params)}`
+    );
   },
 
   getLogs: (leaveApplicationId: number): Promise<Array<{
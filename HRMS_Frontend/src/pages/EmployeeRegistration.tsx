@@ -13,7 +13,7 @@ import { Popover, PopoverContent, PopoverTrigger } from '@/components/ui/popover
 import { Alert, AlertDescription } from '@/components/ui/alert';
 import { Textarea } from '@/components/ui/textarea';
 import { cn } from '@/lib/utils';
-import { apiRequest } from '@/lib/api';
+import { apiRequest, employeeApi } from '@/lib/api';
 
 interface EmployeeFormData {
   firstName: string;
@@ -61,6 +61,18 @@ const initialFormData: EmployeeFormData = {
   panNumber: '',
 };
 
+// The role listing is paged; the manager picker needs every page
+const MANAGER_PAGE_SIZE = 100;
+
+const allWithRole = async (role: string) => {
+  const first = await employeeApi.getByRole(role, 0, MANAGER_PAGE_SIZE);
+  const employees = [...first.content];
+  for (let page = 1; page < first.totalPages; page++) {
+    employees.push(...(await employeeApi.getByRole(role, page, MANAGER_PAGE_SIZE)).content);
+  }
+  return employees;
+};
+
 export default function EmployeeRegistration() {
   const navigate = useNavigate();
   const queryClient = useQueryClient();
@@ -84,8 +96,7 @@ export default function EmployeeRegistration() {
   const { data: managers = [] } = useQuery<any[]>({
     queryKey: ['managers'],
     queryFn: async () => {
-      const admins = (await apiRequest('/employees/role/ADMIN')) as any[];
-      const hrManagers = (await apiRequest('/employees/role/HR_MANAGER')) as any[];
+      const [admins, hrManagers] = await Promise.all([allWithRole('ADMIN'), allWithRole('HR_MANAGER')]);
       return [...admins, ...hrManagers];
     },
   });
@@ -67,6 +67,14 @@ export default function Employees() {
     },
   });
 
+  // Search hits are summaries; the details dialog loads the full employee
+  const { data: selectedEmployeeDetails } = useQuery({
+    queryKey: ['employee', selectedEmployee?.id],
+    queryFn: () => employeeApi.getById(selectedEmployee.id),
+    enabled: selectedEmployee !== null,
+  });
+  const employeeDetail: any = selectedEmployeeDetails ?? selectedEmployee;
+
   const deleteMutation = useMutation({
     mutationFn: (id: number) => employeeApi.delete(id),
     onSuccess: () => {
@@ -321,26 +329,26 @@ export default function Employees() {
             <DialogDescription>Complete information about the employee</DialogDescription>
           </DialogHeader>
           
-          {selectedEmployee && (
+          {employeeDetail && (
             <div className="space-y-6">
               {/* Profile Section */}
               <div className="flex items-center gap-6 pb-6 border-b">
                 <Avatar className="h-24 w-24">
                   <AvatarFallback className="bg-primary/10 text-primary text-3xl">
-                    {selectedEmployee.firstName?.[0]}{selectedEmployee.lastName?.[0]}
+                    {employeeDetail.firstName?.[0]}{employeeDetail.lastName?.[0]}
                   </AvatarFallback>
                 </Avatar>
                 <div className="flex-1">
                   <h3 className="text-2xl font-bold">
-                    {selectedEmployee.firstName} {selectedEmployee.lastName}
+                    {employeeDetail.firstName} {employeeDetail.lastName}
                   </h3>
-                  <p className="text-muted-foreground">{selectedEmployee.email}</p>
+                  <p className="text-muted-foreground">{employeeDetail.email}</p>
                   <div className="flex items-center gap-2 mt-2">
-                    <Badge className={getStatusColor(selectedEmployee.status || 'active')}>
-                      {selectedEmployee.status || 'Active'}
+                    <Badge className={getStatusColor(employeeDetail.status || 'active')}>
+                      {employeeDetail.status || 'Active'}
                     </Badge>
                     <span className="text-sm font-mono text-muted-foreground">
-                      {selectedEmployee.employeeId}
+                      {employeeDetail.employeeId}
                     </span>
                   </div>
                 </div>
@@ -369,7 +377,7 @@ export default function Employees() {
                       <Mail className="h-5 w-5 text-muted-foreground mt-0.5" />
                       <div>
                         <p className="text-sm font-medium">Email</p>
-                        <p className="text-sm text-muted-foreground">{selectedEmployee.email}</p>
+                        <p className="text-sm text-muted-foreground">{employeeDetail.email}</p>
                       </div>
                     </div>
                     <div className="flex items-start gap-3">
@@ -377,7 +385,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Phone</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.phoneNumber || 'N/A'}
+                          {employeeDetail.phoneNumber || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -386,7 +394,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Address</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.address || 'N/A'}
+                          {employeeDetail.address || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -404,7 +412,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Department</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.department || 'N/A'}
+                          {employeeDetail.department || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -413,7 +421,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Designation</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.designation || 'N/A'}
+                          {employeeDetail.designation || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -422,8 +430,8 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Joining Date</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.dateOfJoining 
-                            ? format(new Date(selectedEmployee.dateOfJoining), 'MMMM dd, yyyy')
+                          {employeeDetail.dateOfJoining 
+                            ? format(new Date(employeeDetail.dateOfJoining), 'MMMM dd, yyyy')
                             : 'N/A'}
                         </p>
                       </div>
@@ -442,8 +450,8 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Current Salary</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.salary 
-                            ? `$${Number(selectedEmployee.salary).toLocaleString()}`
+                          {employeeDetail.salary 
+                            ? `$${Number(employeeDetail.salary).toLocaleString()}`
                             : 'N/A'}
                         </p>
                       </div>
@@ -462,7 +470,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Role</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.role || 'EMPLOYEE'}
+                          {employeeDetail.role || 'EMPLOYEE'}
                         </p>
                       </div>
                     </div>
@@ -471,8 +479,8 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Date of Birth</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.dateOfBirth 
-                            ? format(new Date(selectedEmployee.dateOfBirth), 'MMMM dd, yyyy')
+                          {employeeDetail.dateOfBirth 
+                            ? format(new Date(employeeDetail.dateOfBirth), 'MMMM dd, yyyy')
                             : 'N/A'}
                         </p>
                       </div>
@@ -482,7 +490,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Gender</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.gender || 'N/A'}
+                          {employeeDetail.gender || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -500,7 +508,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Bank Name</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.bankName || 'N/A'}
+                          {employeeDetail.bankName || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -509,7 +517,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Account Number</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.bankAccountNumber || 'N/A'}
+                          {employeeDetail.bankAccountNumber || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -518,7 +526,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">IFSC Code</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.ifscCode || 'N/A'}
+                          {employeeDetail.ifscCode || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -527,7 +535,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">PAN Number</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.panNumber || 'N/A'}
+                          {employeeDetail.panNumber || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -545,7 +553,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Contact Name</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.emergencyContactName || 'N/A'}
+                          {employeeDetail.emergencyContactName || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -554,7 +562,7 @@ export default function Employees() {
                       <div>
                         <p className="text-sm font-medium">Contact Phone</p>
                         <p className="text-sm text-muted-foreground">
-                          {selectedEmployee.emergencyContactPhone || 'N/A'}
+                          {employeeDetail.emergencyContactPhone || 'N/A'}
                         </p>
                       </div>
                     </div>
@@ -562,7 +570,7 @@ export default function Employees() {
                 </Card>
 
                 {/* Manager Information */}
-                {selectedEmployee.manager && (
+                {employeeDetail.manager && (
                   <Card>
                     <CardHeader>
                       <CardTitle className="text-lg">Reporting Manager</CardTitle>
@@ -573,8 +581,8 @@ export default function Employees() {
                         <div>
                           <p className="text-sm font-medium">Manager Name</p>
                           <p className="text-sm text-muted-foreground">
-                            {selectedEmployee.manager.fullName || 
-                             `${selectedEmployee.manager.firstName} ${selectedEmployee.manager.lastName}`}
+                            {employeeDetail.manager.fullName || 
+                             `${employeeDetail.manager.firstName} ${employeeDetail.manager.lastName}`}
                           </p>
                         </div>
                       </div>
@@ -583,7 +591,7 @@ export default function Employees() {
                         <div>
                           <p className="text-sm font-medium">Designation</p>
                           <p className="text-sm text-muted-foreground">
-                            {selectedEmployee.manager.designation || 'N/A'}
+                            {employeeDetail.manager.designation || 'N/A'}
                           </p>
                         </div>
                       </div>
@@ -595,7 +603,7 @@ export default function Employees() {
 
             <TabsContent value="salary" className="mt-4">
               {['ADMIN', 'PAYROLL_OFFICER'].includes(userInfo.role) ? (
-                <SalaryInfo employeeId={selectedEmployee.id} />
+                <SalaryInfo employeeId={employeeDetail.id} />
               ) : (
                 <div className="text-center text-muted-foreground py-8">
                   You don't have permission to view salary information.
@@ -629,7 +637,7 @@ export default function Employees() {
                     </p>
                     <Button 
                       variant="outline"
-                      onClick={() => resetPasswordMutation.mutate(selectedEmployee.id)}
+                      onClick={() => resetPasswordMutation.mutate(employeeDetail.id)}
                     >
                       <Key className="mr-2 h-4 w-4" />
                       Reset Password
@@ -638,7 +646,7 @@ export default function Employees() {
                   <div>
                     <h4 className="font-medium mb-2">Account Status</h4>
                     <p className="text-sm text-muted-foreground mb-4">
-                      {selectedEmployee.status?.toLowerCase() === 'active' 
+                      {employeeDetail.status?.toLowerCase() === 'active' 
                         ? 'This account is currently active.'
                         : 'This account is currently inactive.'}
                     </p>
@@ -646,13 +654,13 @@ export default function Employees() {
                       variant="outline"
                       onClick={() => {
                         activateDeactivateMutation.mutate({ 
-                          id: selectedEmployee.id, 
-                          status: selectedEmployee.status?.toLowerCase() === 'active' ? 'INACTIVE' : 'ACTIVE'
+                          id: employeeDetail.id, 
+                          status: employeeDetail.status?.toLowerCase() === 'active' ? 'INACTIVE' : 'ACTIVE'
                         });
                       }}
                     >
                       <UserCheck className="mr-2 h-4 w-4" />
-                      {selectedEmployee.status?.toLowerCase() === 'active' ? 'Deactivate Account' : 'Activate Account'}
+                      {employeeDetail.status?.toLowerCase() === 'active' ? 'Deactivate Account' : 'Activate Account'}
                     </Button>
                   </div>
                 </CardContent>
@@ -1,5 +1,5 @@
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
-import { leaveApi, leaveBalanceApi, leaveTypeApi } from '@/lib/api';
+import { leaveApi, leaveBalanceApi, leaveTypeApi, LeaveApplicationSummary } from '@/lib/api';
 import { Button } from '@/components/ui/button';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Progress } from '@/components/ui/progress';
@@ -20,11 +20,22 @@ import { Loader2, Calendar, CheckCircle, XCircle, Clock, TrendingUp, AlertCircle
 import { useState } from 'react';
 import { useAuth } from '@/contexts/AuthContext';
 
+const HR_PAGE_SIZE = 20;
+
+// The HR lists return flat summaries; shape them like the rows renderLeaveTable reads
+const toLeaveRow = (summary: LeaveApplicationSummary) => ({
+  ...summary,
+  totalDays: summary.numberOfDays,
+  employee: { id: summary.employeeId, employeeCode: summary.employeeCode, firstName: summary.employeeName, lastName: '' },
+  leaveType: { id: summary.leaveTypeId, name: summary.leaveTypeName },
+});
+
 export default function Leave() {
   const { toast } = useToast();
   const queryClient = useQueryClient();
   const { hasRole } = useAuth();
   const [selectedTab, setSelectedTab] = useState('my-leaves');
+  const [hrPage, setHrPage] = useState(0);
   const isManager = hasRole(['ADMIN', 'HR_MANAGER']);
 
   // Fetch my leave requests
@@ -33,31 +44,40 @@ export default function Leave() {
     queryFn: leaveApi.getMyLeaves,
   });
 
-  // Fetch pending approvals (for managers)
+  // Line managers and department heads approve too, so ask the server whether anything waits on us.
+  // Shares the pendingApprovals key prefix so approving or rejecting refreshes it as well.
+  const { data: approvalCount } = useQuery({
+    queryKey: ['pendingApprovals', 'count'],
+    queryFn: leaveApi.getPendingApprovalsCount,
+  });
+  // Stay on the tab after clearing the last request rather than having it vanish underfoot
+  const isApprover = isManager || (approvalCount?.count ?? 0) > 0 || selectedTab === 'pending-approvals';
+
+  // Fetch pending approvals (for anyone with requests waiting on them)
   const { data: pendingApprovals, isLoading: approvalsLoading } = useQuery({
     queryKey: ['pendingApprovals'],
     queryFn: leaveApi.getPendingApprovals,
-    enabled: isManager,
+    enabled: isApprover,
   });
 
   // Fetch all requests (for managers)
   const { data: allRequests, isLoading: allRequestsLoading } = useQuery({
-    queryKey: ['allLeaveRequests'],
-    queryFn: leaveApi.getAll,
+    queryKey: ['allLeaveRequests', hrPage],
+    queryFn: () => leaveApi.getAll({ page: hrPage, size: HR_PAGE_SIZE }),
     enabled: isManager,
   });
 
   // Fetch approved leaves (for managers)
   const { data: approvedLeaves, isLoading: approvedLoading } = useQuery({
-    queryKey: ['approvedLeaves'],
-    queryFn: leaveApi.getApproved,
+    queryKey: ['approvedLeaves', hrPage],
+    queryFn: () => leaveApi.getApproved({ page: hrPage, size: HR_PAGE_SIZE }),
     enabled: isManager,
   });
 
   // Fetch rejected leaves (for managers)
   const { data: rejectedLeaves, isLoading: rejectedLoading } = useQuery({
-    queryKey: ['rejectedLeaves'],
-    queryFn: leaveApi.getRejected,
+    queryKey: ['rejectedLeaves', hrPage],
+    queryFn: () => leaveApi.getRejected({ page: hrPage, size: HR_PAGE_SIZE }),
     enabled: isManager,
   });
 
@@ -177,6 +197,37 @@ export default function Leave() {
     return leaves?.filter(req => req.status?.toLowerCase() === status) || [];
   };
 
+  const renderPager = (totalPages: number) => {
+    if (totalPages <= 1) {
+      return null;
+    }
+    return (
+      <div className="mt-4 flex items-center justify-between">
+        <p className="text-sm text-muted-foreground">
+          Page {hrPage + 1} of {totalPages}
+        </p>
+        <div className="flex gap-2">
+          <Button
+            variant="outline"
+            size="sm"
+            onClick={() => setHrPage(p => Math.max(0, p - 1))}
+            disabled={hrPage === 0}
+          >
+            Previous
+          </Button>
+          <Button
+            variant="outline"
+            size="sm"
+            onClick={() => setHrPage(p => Math.min(totalPages - 1, p + 1))}
+            disabled={hrPage >= totalPages - 1}
+          >
+            Next
+          </Button>
+        </div>
+      </div>
+    );
+  };
+
   const renderLeaveTable = (leaves: any[], showActions: boolean = false, showEmployee: boolean = false, forceShowActions: boolean = false) => {
     if (!leaves || leaves.length === 0) {
       return (
@@ -360,10 +411,10 @@ export default function Leave() {
       {/* Leave Requests Table */}
       <Card>
         <CardContent className="p-6">
-          <Tabs value={selectedTab} onValueChange={setSelectedTab}>
+          <Tabs value={selectedTab} onValueChange={(tab) => { setSelectedTab(tab); setHrPage(0); }}>
             <TabsList className="mb-6">
               <TabsTrigger value="my-leaves">My Leaves</TabsTrigger>
-              {isManager && <TabsTrigger value="pending-approvals">Pending Approvals</TabsTrigger>}
+              {isApprover && <TabsTrigger value="pending-approvals">Pending Approvals</TabsTrigger>}
               {isManager && <TabsTrigger value="all">All Requests</TabsTrigger>}
               {isManager && <TabsTrigger value="approved">All Approved</TabsTrigger>}
               {isManager && <TabsTrigger value="rejected">All Rejected</TabsTrigger>}
@@ -379,7 +430,7 @@ export default function Leave() {
                   {renderLeaveTable(myLeaves || [], false, false)}
                 </TabsContent>
 
-                {isManager && (
+                {isApprover && (
                   <TabsContent value="pending-approvals">
                     {renderLeaveTable(pendingApprovals || [], true, true)}
                   </TabsContent>
@@ -387,19 +438,22 @@ export default function Leave() {
 
                 {isManager && (
                   <TabsContent value="all">
-                    {renderLeaveTable(allRequests || [], false, true)}
+                    {renderLeaveTable((allRequests?.content || []).map(toLeaveRow), false, true)}
+                    {renderPager(allRequests?.totalPages || 0)}
                   </TabsContent>
                 )}
 
                 {isManager && (
                   <TabsContent value="approved">
-                    {renderLeaveTable(approvedLeaves || [], false, true)}
+                    {renderLeaveTable((approvedLeaves?.content || []).map(toLeaveRow), false, true)}
+                    {renderPager(approvedLeaves?.totalPages || 0)}
                   </TabsContent>
                 )}
 
                 {isManager && (
                   <TabsContent value="rejected">
-                    {renderLeaveTable(rejectedLeaves || [], false, true)}
+                    {renderLeaveTable((rejectedLeaves?.content || []).map(toLeaveRow), false, true)}
+                    {renderPager(rejectedLeaves?.totalPages || 0)}
                   </TabsContent>
                 )}
               </>
@@ -1,11 +1,21 @@
 package com.workzen.controller;
 
+import com.workzen.dto.AttendanceAnomalyDTO;
 import com.workzen.dto.AttendanceDTO;
+import com.workzen.dto.TeamAttendanceCalendarDTO;
 import com.workzen.entity.Attendance;
 import com.workzen.entity.Employee;
 import com.workzen.enums.AttendanceStatus;
+import com.workzen.enums.Role;
+import com.workzen.scheduler.AttendanceAnomalyJob;
+import com.workzen.scheduler.AttendanceEndOfDayJob;
+import com.workzen.scheduler.AttendancePartitionJob;
 import com.workzen.service.AttendanceService;
+import com.workzen.service.CheckInDeduplicator;
+import com.workzen.service.DepartmentService;
 import com.workzen.service.EmployeeService;
+import com.workzen.util.ClientIpResolver;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,9 +28,12 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -29,24 +42,41 @@ public class AttendanceController {
     
     private final AttendanceService attendanceService;
     private final EmployeeService employeeService;
+    private final DepartmentService departmentService;
+    private final AttendanceEndOfDayJob attendanceEndOfDayJob;
+    private final AttendancePartitionJob attendancePartitionJob;
+    private final CheckInDeduplicator checkInDeduplicator;
+    private final AttendanceAnomalyJob attendanceAnomalyJob;
+    private final ClientIpResolver clientIpResolver;
     
     @PostMapping("/check-in")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Attendance> checkIn(@AuthenticationPrincipal UserDetails userDetails) {
-        // Resolve Employee from authenticated principal's username/email
-        Employee employee = employeeService.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
-        Attendance attendance = attendanceService.checkIn(employee, LocalDateTime.now());
+    public ResponseEntity<AttendanceDTO> checkIn(@AuthenticationPrincipal UserDetails userDetails,
+                                                 @RequestBody(required = false) Map<String, Object> request,
+                                                 HttpServletRequest httpRequest) {
+        // The principal is the Employee loaded by the JWT filter, so retries don't need another lookup
+        Employee employee = userDetails instanceof Employee principal ? principal
+                : employeeService.findByEmail(userDetails.getUsername())
+                        .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
+        LocalDateTime now = LocalDateTime.now();
+        AttendanceService.CheckInMetadata metadata = new AttendanceService.CheckInMetadata(
+                clientIpResolver.resolve(httpRequest),
+                parseCoordinate(request, "latitude", "Latitude"),
+                parseCoordinate(request, "longitude", "Longitude"),
+                httpRequest.getHeader("User-Agent"));
+        
+        AttendanceDTO attendance = checkInDeduplicator.deduplicate(employee.getId(), now.toLocalDate(),
+                () -> convertToDTO(attendanceService.checkIn(employee, now, metadata)));
         return new ResponseEntity<>(attendance, HttpStatus.CREATED);
     }
     
     @PatchMapping("/check-out")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Attendance> checkOut(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<AttendanceDTO> checkOut(@AuthenticationPrincipal UserDetails userDetails) {
         Employee employee = employeeService.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
         Attendance attendance = attendanceService.checkOut(employee, LocalDateTime.now());
-        return ResponseEntity.ok(attendance);
+        return ResponseEntity.ok(convertToDTO(attendance));
     }
     
     @PostMapping("/mark")
@@ -74,9 +104,8 @@ public class AttendanceController {
     
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Attendance> getAttendanceById(@PathVariable Long id) {
-        Attendance attendance = attendanceService.findById(id);
-        return ResponseEntity.ok(attendance);
+    public ResponseEntity<AttendanceDTO> getAttendanceById(@PathVariable Long id) {
+        return ResponseEntity.ok(attendanceService.findDtoById(id));
     }
     
     @GetMapping("/today")
@@ -104,6 +133,21 @@ public class AttendanceController {
         return ResponseEntity.ok(dto);
     }
     
+    private static Double parseCoordinate(Map<String, Object> request, String field, String label) {
+        Object value = request != null ? request.get(field) : null;
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        try {
+            return Double.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(label + " must be a number");
+        }
+    }
+
     private AttendanceDTO convertToDTO(Attendance attendance) {
         return AttendanceDTO.builder()
                 .id(attendance.getId())
@@ -115,6 +159,8 @@ public class AttendanceController {
                 .remarks(attendance.getRemarks())
                 .isOvertime(attendance.getIsOvertime())
                 .overtimeHours(attendance.getOvertimeHours())
+                .lateMinutes(attendance.getLateMinutes())
+                .earlyLeaveMinutes(attendance.getEarlyLeaveMinutes())
                 .employeeId(attendance.getEmployee().getId())
                 .employeeName(attendance.getEmployee().getFullName())
                 .employeeCode(attendance.getEmployee().getEmployeeCode())
@@ -123,53 +169,53 @@ public class AttendanceController {
     
     @GetMapping("/my-attendance")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Attendance>> getMyAttendance(@AuthenticationPrincipal UserDetails userDetails,
-                                                             @RequestParam LocalDate startDate,
-                                                             @RequestParam LocalDate endDate) {
+    public ResponseEntity<List<AttendanceDTO>> getMyAttendance(@AuthenticationPrincipal UserDetails userDetails,
+                                                                @RequestParam LocalDate startDate,
+                                                                @RequestParam LocalDate endDate) {
     Employee employee = employeeService.findByEmail(userDetails.getUsername())
         .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
-    List<Attendance> attendance = attendanceService.getEmployeeAttendance(employee, startDate, endDate);
+    List<AttendanceDTO> attendance = attendanceService.getEmployeeAttendance(employee.getId(), startDate, endDate);
         return ResponseEntity.ok(attendance);
     }
     
     @GetMapping("/my-attendance/month")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Attendance>> getMyMonthlyAttendance(@AuthenticationPrincipal UserDetails userDetails,
-                                                                     @RequestParam int year,
-                                                                     @RequestParam int month) {
+    public ResponseEntity<List<AttendanceDTO>> getMyMonthlyAttendance(@AuthenticationPrincipal UserDetails userDetails,
+                                                                        @RequestParam int year,
+                                                                        @RequestParam int month) {
     Employee employee = employeeService.findByEmail(userDetails.getUsername())
         .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
-    List<Attendance> attendance = attendanceService.getMonthlyAttendance(employee, year, month);
+    List<AttendanceDTO> attendance = attendanceService.getMonthlyAttendance(employee.getId(), year, month);
         return ResponseEntity.ok(attendance);
     }
     
     @GetMapping("/my-attendance/paginated")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Page<Attendance>> getMyAttendancePaginated(@AuthenticationPrincipal UserDetails userDetails,
-                                                                       Pageable pageable) {
+    public ResponseEntity<Page<AttendanceDTO>> getMyAttendancePaginated(@AuthenticationPrincipal UserDetails userDetails,
+                                                                          Pageable pageable) {
     Employee employee = employeeService.findByEmail(userDetails.getUsername())
         .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
-    Page<Attendance> attendance = attendanceService.getEmployeeAttendance(employee, pageable);
+    Page<AttendanceDTO> attendance = attendanceService.getEmployeeAttendance(employee.getId(), pageable);
         return ResponseEntity.ok(attendance);
     }
     
     @GetMapping("/employee/{employeeId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<List<Attendance>> getEmployeeAttendance(@PathVariable Long employeeId,
-                                                                    @RequestParam LocalDate startDate,
-                                                                    @RequestParam LocalDate endDate) {
-        Employee employee = employeeService.findById(employeeId);
-        List<Attendance> attendance = attendanceService.getEmployeeAttendance(employee, startDate, endDate);
+    public ResponseEntity<List<AttendanceDTO>> getEmployeeAttendance(@PathVariable Long employeeId,
+                                                                       @RequestParam LocalDate startDate,
+                                                                       @RequestParam LocalDate endDate) {
+        employeeService.requireExists(employeeId);
+        List<AttendanceDTO> attendance = attendanceService.getEmployeeAttendance(employeeId, startDate, endDate);
         return ResponseEntity.ok(attendance);
     }
     
     @GetMapping("/employee/{employeeId}/month")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<List<Attendance>> getEmployeeMonthlyAttendance(@PathVariable Long employeeId,
-                                                                           @RequestParam int year,
-                                                                           @RequestParam int month) {
-        Employee employee = employeeService.findById(employeeId);
-        List<Attendance> attendance = attendanceService.getMonthlyAttendance(employee, year, month);
+    public ResponseEntity<List<AttendanceDTO>> getEmployeeMonthlyAttendance(@PathVariable Long employeeId,
+                                                                              @RequestParam int year,
+                                                                              @RequestParam int month) {
+        employeeService.requireExists(employeeId);
+        List<AttendanceDTO> attendance = attendanceService.getMonthlyAttendance(employeeId, year, month);
         return ResponseEntity.ok(attendance);
     }
     
@@ -179,22 +225,100 @@ public class AttendanceController {
                                                                             @RequestParam LocalDate startDate,
                                                                             @RequestParam LocalDate endDate) {
         Employee employee = employeeService.findById(employeeId);
+        Map<String, Object> stats = attendanceService.getAttendanceStats(employee, startDate, endDate).toMap();
         
-        long presentDays = attendanceService.getAttendanceCount(employee, AttendanceStatus.PRESENT, startDate, endDate);
-        long absentDays = attendanceService.getAttendanceCount(employee, AttendanceStatus.ABSENT, startDate, endDate);
-        long halfDays = attendanceService.getAttendanceCount(employee, AttendanceStatus.HALF_DAY, startDate, endDate);
-        long wfhDays = attendanceService.getAttendanceCount(employee, AttendanceStatus.WORK_FROM_HOME, startDate, endDate);
-        Double totalHours = attendanceService.getTotalWorkedHours(employee, startDate, endDate);
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<List<Map<String, Object>>> getAttendanceStatsByEmployee(@RequestParam LocalDate startDate,
+                                                                                   @RequestParam LocalDate endDate,
+                                                                                   @RequestParam(required = false) Long departmentId) {
+        List<Map<String, Object>> stats = attendanceService.getAttendanceStatsByEmployee(startDate, endDate, departmentId)
+                .entrySet().stream()
+                .map(entry -> {
+                    Map<String, Object> employeeStats = new LinkedHashMap<>();
+                    employeeStats.put("employeeId", entry.getKey());
+                    employeeStats.putAll(entry.getValue().toMap());
+                    return employeeStats;
+                })
+                .toList();
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/team/calendar")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<TeamAttendanceCalendarDTO> getTeamCalendar(@AuthenticationPrincipal UserDetails userDetails,
+                                                                     @RequestParam int year,
+                                                                     @RequestParam int month,
+                                                                     @RequestParam(required = false) Long managerId,
+                                                                     @RequestParam(required = false) Long departmentId) {
+        Employee currentUser = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
+        boolean canViewAnyTeam = currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.HR_MANAGER;
         
-        Map<String, Object> stats = Map.of(
-                "presentDays", presentDays,
-                "absentDays", absentDays,
-                "halfDays", halfDays,
-                "wfhDays", wfhDays,
-                "totalHours", totalHours
-        );
+        List<Employee> members;
+        if (departmentId != null) {
+            if (!canViewAnyTeam) {
+                throw new RuntimeException("Only HR or admins can view a department calendar");
+            }
+            members = employeeService.findActiveByDepartment(departmentService.findById(departmentId));
+        } else if (managerId != null && !managerId.equals(currentUser.getId())) {
+            if (!canViewAnyTeam) {
+                throw new RuntimeException("You can only view your own team's calendar");
+            }
+            members = employeeService.findSubordinates(employeeService.findById(managerId));
+        } else {
+            members = employeeService.findSubordinates(currentUser);
+        }
         
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(attendanceService.getTeamCalendar(members, YearMonth.of(year, month)));
+    }
+    
+    @PostMapping("/end-of-day/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AttendanceEndOfDayJob.EndOfDayResult> runEndOfDay(@RequestParam LocalDate date) {
+        return ResponseEntity.ok(attendanceEndOfDayJob.runFor(date));
+    }
+    
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildAttendanceRollup(@RequestParam int year,
+                                                                        @RequestParam int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        if (attendancePartitionJob.isArchived(yearMonth)) {
+            // Raw rows have moved to the archive schema; rebuilding would wipe the month's totals
+            throw new RuntimeException("Attendance for " + yearMonth + " has been archived and cannot be rebuilt");
+        }
+        int buckets = attendanceService.rebuildRollup(yearMonth);
+        return ResponseEntity.ok(Map.of("year", year, "month", month, "employees", buckets));
+    }
+    
+    @PostMapping("/partitions/maintain")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AttendancePartitionJob.PartitionMaintenanceResult> maintainPartitions() {
+        return ResponseEntity.ok(attendancePartitionJob.run());
+    }
+    
+    @GetMapping("/anomalies")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Page<AttendanceAnomalyDTO>> getAnomalies(@RequestParam(defaultValue = "false") boolean resolved,
+                                                                   Pageable pageable) {
+        return ResponseEntity.ok(attendanceService.getAnomalies(resolved, pageable));
+    }
+    
+    @PatchMapping("/anomalies/{id}/resolve")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Void> resolveAnomaly(@PathVariable Long id) {
+        attendanceService.resolveAnomaly(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/anomalies/scan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AttendanceAnomalyJob.AnomalyScanResult> runAnomalyScan() {
+        return ResponseEntity.ok(attendanceAnomalyJob.run());
     }
     
     @GetMapping("/today/all")
@@ -202,6 +326,7 @@ public class AttendanceController {
     public ResponseEntity<List<Map<String, Object>>> getAllEmployeesTodayAttendance() {
         List<Employee> allEmployees = employeeService.getAllActiveEmployees();
         LocalDate today = LocalDate.now();
+        Set<Long> onLeaveToday = attendanceService.getEmployeeIdsOnLeave(today);
         List<Map<String, Object>> employeesWithStatus = allEmployees.stream()
                 .map(employee -> {
                     Attendance todayAttendance = attendanceService.getTodayAttendance(employee);
@@ -211,8 +336,7 @@ public class AttendanceController {
                         status = todayAttendance.getStatus().toString();
                     } else {
                         // Check if employee has approved leave for today
-                        boolean hasLeaveToday = attendanceService.hasApprovedLeaveToday(employee);
-                        status = hasLeaveToday ? "ON_LEAVE" : "ABSENT";
+                        status = onLeaveToday.contains(employee.getId()) ? "ON_LEAVE" : "ABSENT";
                     }
                     
                     Map<String, Object> empMap = new HashMap<>();
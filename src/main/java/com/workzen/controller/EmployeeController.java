@@ -1,7 +1,9 @@
 package com.workzen.controller;
 
+import com.workzen.dto.employee.EmployeeDirectoryEntry;
 import com.workzen.dto.employee.EmployeeRequest;
 import com.workzen.dto.employee.EmployeeResponse;
+import com.workzen.dto.employee.EmployeeSearchResult;
 import com.workzen.entity.Department;
 import com.workzen.entity.Designation;
 import com.workzen.entity.Employee;
@@ -9,6 +11,7 @@ import com.workzen.enums.EmployeeStatus;
 import com.workzen.enums.Role;
 import com.workzen.service.DepartmentService;
 import com.workzen.service.DesignationService;
+import com.workzen.service.EmployeeDirectoryCache;
 import com.workzen.service.EmployeeIdGeneratorService;
 import com.workzen.service.EmployeeService;
 import jakarta.validation.Valid;
@@ -28,14 +31,16 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/employees")
 @RequiredArgsConstructor
 public class EmployeeController {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private final EmployeeService employeeService;
+    private final EmployeeDirectoryCache employeeDirectoryCache;
     private final DepartmentService departmentService;
     private final DesignationService designationService;
     private final com.workzen.service.SalaryStructureService salaryStructureService;
@@ -133,11 +138,7 @@ public class EmployeeController {
             @RequestParam(defaultValue = "firstName") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection
     ) {
-        Sort sort = sortDirection.equalsIgnoreCase("desc") ? 
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        Page<Employee> employeePage = employeeService.findAll(pageable);
+        Page<Employee> employeePage = employeeService.findAll(pageRequest(page, size, sortBy, sortDirection));
         Page<EmployeeResponse> responsePage = employeePage.map(this::mapToResponse);
         
         return ResponseEntity.ok(responsePage);
@@ -197,58 +198,75 @@ public class EmployeeController {
         return ResponseEntity.ok(mapToResponse(updatedEmployee));
     }
     
-    // Search employees
+    // Search employees by name, email or code; typo-tolerant and ranked, best match first
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR_MANAGER')")
-    public ResponseEntity<Page<EmployeeResponse>> searchEmployees(
+    public ResponseEntity<Page<EmployeeSearchResult>> searchEmployees(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Employee> employeePage = employeeService.searchEmployees(keyword, pageable);
-        Page<EmployeeResponse> responsePage = employeePage.map(this::mapToResponse);
-        
-        return ResponseEntity.ok(responsePage);
+        return ResponseEntity.ok(employeeService.searchEmployees(keyword, pageable));
+    }
+    
+    // Typeahead for the directory and employee pickers, served from memory. Former and suspended
+    // employees are HR records, so only HR and admins may include them.
+    @GetMapping("/directory")
+    @PreAuthorize("#activeOnly or hasRole('ADMIN') or hasRole('HR_MANAGER')")
+    public ResponseEntity<List<EmployeeDirectoryEntry>> searchDirectory(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "true") boolean activeOnly
+    ) {
+        return ResponseEntity.ok(employeeDirectoryCache.search(q, limit, activeOnly));
     }
     
     // Get employees by department
     @GetMapping("/department/{departmentId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR_MANAGER')")
-    public ResponseEntity<List<EmployeeResponse>> getEmployeesByDepartment(
-            @PathVariable Long departmentId
+    public ResponseEntity<Page<EmployeeResponse>> getEmployeesByDepartment(
+            @PathVariable Long departmentId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "firstName") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
     ) {
         Department department = departmentService.findById(departmentId);
-        List<Employee> employees = employeeService.findByDepartment(department);
-        List<EmployeeResponse> responses = employees.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        Page<Employee> employees = employeeService.findByDepartment(department,
+                pageRequest(page, size, sortBy, sortDirection));
         
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(employees.map(this::mapToResponse));
     }
     
     // Get employees by role
     @GetMapping("/role/{role}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR_MANAGER')")
-    public ResponseEntity<List<EmployeeResponse>> getEmployeesByRole(@PathVariable Role role) {
-        List<Employee> employees = employeeService.findByRole(role);
-        List<EmployeeResponse> responses = employees.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<Page<EmployeeResponse>> getEmployeesByRole(
+            @PathVariable Role role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "firstName") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        Page<Employee> employees = employeeService.findByRole(role, pageRequest(page, size, sortBy, sortDirection));
         
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(employees.map(this::mapToResponse));
     }
     
     // Get employees by status
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR_MANAGER')")
-    public ResponseEntity<List<EmployeeResponse>> getEmployeesByStatus(@PathVariable EmployeeStatus status) {
-        List<Employee> employees = employeeService.findByStatus(status);
-        List<EmployeeResponse> responses = employees.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<Page<EmployeeResponse>> getEmployeesByStatus(
+            @PathVariable EmployeeStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "firstName") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        Page<Employee> employees = employeeService.findByStatus(status, pageRequest(page, size, sortBy, sortDirection));
         
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(employees.map(this::mapToResponse));
     }
     
     // Change employee status
@@ -315,6 +333,12 @@ public class EmployeeController {
     }
     
     // Helper methods
+    private static Pageable pageRequest(int page, int size, String sortBy, String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("desc") ? 
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        return PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)), sort);
+    }
+    
     private Employee mapToEntity(EmployeeRequest request) {
         // Fetch Department and Designation entities if IDs are provided
         Department department = null;
@@ -0,0 +1,95 @@
+package com.workzen.controller;
+
+import com.workzen.entity.Employee;
+import com.workzen.entity.Holiday;
+import com.workzen.entity.HolidayCalendar;
+import com.workzen.service.EmployeeService;
+import com.workzen.service.HolidayCalendarCache;
+import com.workzen.service.HolidayCalendarService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/holiday-calendars")
+@RequiredArgsConstructor
+public class HolidayCalendarController {
+    
+    private final HolidayCalendarService holidayCalendarService;
+    private final HolidayCalendarCache holidayCalendarCache;
+    private final EmployeeService employeeService;
+    
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<HolidayCalendar> createCalendar(@RequestBody HolidayCalendar calendar) {
+        HolidayCalendar created = holidayCalendarService.createCalendar(calendar);
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    }
+    
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<HolidayCalendar> updateCalendar(@PathVariable Long id, @RequestBody HolidayCalendar calendar) {
+        HolidayCalendar updated = holidayCalendarService.updateCalendar(id, calendar);
+        return ResponseEntity.ok(updated);
+    }
+    
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<HolidayCalendar>> getAllCalendars() {
+        return ResponseEntity.ok(holidayCalendarService.findAll());
+    }
+    
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<HolidayCalendar> getCalendarById(@PathVariable Long id) {
+        return ResponseEntity.ok(holidayCalendarService.findById(id));
+    }
+    
+    @GetMapping("/{id}/holidays")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<Holiday>> getHolidays(@PathVariable Long id, @RequestParam int year) {
+        return ResponseEntity.ok(holidayCalendarService.getHolidays(id, year));
+    }
+    
+    @PostMapping("/{id}/holidays")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Holiday> addHoliday(@PathVariable Long id, @RequestBody Map<String, String> request) {
+        LocalDate date = LocalDate.parse(request.get("date"));
+        Holiday holiday = holidayCalendarService.addHoliday(id, date, request.get("name"));
+        return new ResponseEntity<>(holiday, HttpStatus.CREATED);
+    }
+    
+    @DeleteMapping("/holidays/{holidayId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Void> deleteHoliday(@PathVariable Long holidayId) {
+        holidayCalendarService.deleteHoliday(holidayId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PutMapping("/assign/employee/{employeeId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Void> assignToEmployee(@PathVariable Long employeeId,
+                                                 @RequestParam(required = false) Long calendarId) {
+        holidayCalendarService.assignToEmployee(employeeId, calendarId);
+        return ResponseEntity.ok().build();
+    }
+    
+    @GetMapping("/working-days")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getMyWorkingDays(@AuthenticationPrincipal UserDetails userDetails,
+                                                                @RequestParam LocalDate startDate,
+                                                                @RequestParam LocalDate endDate) {
+        Employee employee = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
+        int workingDays = holidayCalendarCache.workingDaysBetween(employee, startDate, endDate);
+        return ResponseEntity.ok(Map.of("startDate", startDate, "endDate", endDate, "workingDays", workingDays));
+    }
+}
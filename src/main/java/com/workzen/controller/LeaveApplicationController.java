@@ -1,15 +1,26 @@
 package com.workzen.controller;
 
+import com.workzen.dto.KeysetPage;
+import com.workzen.dto.LeaveApplicationLogDTO;
+import com.workzen.dto.LeaveApplicationSummaryDTO;
+import com.workzen.dto.LeaveApprovalStepDTO;
+import com.workzen.dto.TeamLeaveCalendarDTO;
 import com.workzen.entity.Employee;
 import com.workzen.entity.LeaveApplication;
 import com.workzen.entity.LeaveType;
 import com.workzen.enums.LeaveStatus;
+import com.workzen.enums.Role;
+import com.workzen.service.DepartmentService;
 import com.workzen.service.EmployeeService;
 import com.workzen.service.LeaveApplicationService;
+import com.workzen.service.LeaveApprovalWorkflowService;
+import com.workzen.service.LeaveBulkDecisionService;
 import com.workzen.service.LeaveTypeService;
+import com.workzen.service.TeamLeaveCalendarService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +29,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +41,10 @@ public class LeaveApplicationController {
     private final LeaveApplicationService leaveApplicationService;
     private final EmployeeService employeeService;
     private final LeaveTypeService leaveTypeService;
+    private final LeaveBulkDecisionService leaveBulkDecisionService;
+    private final LeaveApprovalWorkflowService leaveApprovalWorkflowService;
+    private final TeamLeaveCalendarService teamLeaveCalendarService;
+    private final DepartmentService departmentService;
     
     @PostMapping
     @PreAuthorize("isAuthenticated()")
@@ -42,16 +58,18 @@ public class LeaveApplicationController {
         String reason = request.get("reason").toString();
         Boolean isHalfDay = request.containsKey("isHalfDay") ? 
                             Boolean.valueOf(request.get("isHalfDay").toString()) : false;
+        Double hours = request.get("hours") != null ? Double.valueOf(request.get("hours").toString()) : null;
         
         LeaveType leaveType = leaveTypeService.findById(leaveTypeId);
         
         LeaveApplication created = leaveApplicationService.applyLeave(
-                employee, leaveType, startDate, endDate, reason, isHalfDay);
+                employee, leaveType, startDate, endDate, reason, isHalfDay, hours);
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
     
+    // Managers and department heads approve their own steps; the workflow checks who may decide
     @PatchMapping("/{id}/approve")
-    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    @PreAuthorize("isAuthenticated()")
     public ResponseEntity<LeaveApplication> approveLeave(@PathVariable Long id,
                                                           @AuthenticationPrincipal UserDetails userDetails) {
         Employee approver = employeeService.findByEmail(userDetails.getUsername())
@@ -61,7 +79,7 @@ public class LeaveApplicationController {
     }
     
     @PatchMapping("/{id}/reject")
-    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    @PreAuthorize("isAuthenticated()")
     public ResponseEntity<LeaveApplication> rejectLeave(@PathVariable Long id,
                                                          @AuthenticationPrincipal UserDetails userDetails,
                                                          @RequestBody Map<String, String> request) {
@@ -72,6 +90,27 @@ public class LeaveApplicationController {
         return ResponseEntity.ok(rejected);
     }
     
+    @PostMapping("/bulk/approve")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<LeaveBulkDecisionService.BulkDecisionResult> bulkApprove(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody Map<String, Object> request) {
+        Employee approver = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
+        return ResponseEntity.ok(leaveBulkDecisionService.approve(parseIds(request), approver));
+    }
+    
+    @PostMapping("/bulk/reject")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<LeaveBulkDecisionService.BulkDecisionResult> bulkReject(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody Map<String, Object> request) {
+        Employee approver = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
+        String rejectionReason = request.get("rejectionReason") != null ? request.get("rejectionReason").toString() : null;
+        return ResponseEntity.ok(leaveBulkDecisionService.reject(parseIds(request), approver, rejectionReason));
+    }
+    
     @PatchMapping("/{id}/cancel")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<LeaveApplication> cancelLeave(@PathVariable Long id,
@@ -89,6 +128,57 @@ public class LeaveApplicationController {
         return ResponseEntity.ok(leaveApplication);
     }
     
+    @GetMapping("/{id}/approval-steps")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<LeaveApprovalStepDTO>> getApprovalSteps(@PathVariable Long id,
+                                                                       @AuthenticationPrincipal UserDetails userDetails) {
+        Employee currentUser = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
+        leaveApprovalWorkflowService.checkCanView(leaveApplicationService.findById(id), currentUser);
+        return ResponseEntity.ok(leaveApprovalWorkflowService.getSteps(id));
+    }
+    
+    @GetMapping("/{id}/coverage")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<TeamLeaveCalendarDTO> getCoverage(@PathVariable Long id,
+                                                            @AuthenticationPrincipal UserDetails userDetails) {
+        Employee currentUser = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
+        LeaveApplication leaveApplication = leaveApplicationService.findById(id);
+        leaveApprovalWorkflowService.checkCanView(leaveApplication, currentUser);
+        return ResponseEntity.ok(teamLeaveCalendarService.getCoverageForApplication(leaveApplication));
+    }
+    
+    @GetMapping("/team/calendar")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<TeamLeaveCalendarDTO> getTeamCalendar(@AuthenticationPrincipal UserDetails userDetails,
+                                                                @RequestParam LocalDate startDate,
+                                                                @RequestParam LocalDate endDate,
+                                                                @RequestParam(required = false) Long managerId,
+                                                                @RequestParam(required = false) Long departmentId,
+                                                                @RequestParam(required = false) Double minCoverage) {
+        Employee currentUser = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Authenticated employee not found"));
+        boolean canViewAnyTeam = currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.HR_MANAGER;
+        
+        List<Employee> members;
+        if (departmentId != null) {
+            if (!canViewAnyTeam) {
+                throw new RuntimeException("Only HR or admins can view a department calendar");
+            }
+            members = employeeService.findActiveByDepartment(departmentService.findById(departmentId));
+        } else if (managerId != null && !managerId.equals(currentUser.getId())) {
+            if (!canViewAnyTeam) {
+                throw new RuntimeException("You can only view your own team's calendar");
+            }
+            members = employeeService.findSubordinates(employeeService.findById(managerId));
+        } else {
+            members = employeeService.findSubordinates(currentUser);
+        }
+        
+        return ResponseEntity.ok(teamLeaveCalendarService.getCalendar(members, startDate, endDate, minCoverage));
+    }
+    
     @GetMapping("/my-leaves")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<LeaveApplication>> getMyLeaves(@AuthenticationPrincipal UserDetails userDetails) {
@@ -124,11 +214,37 @@ public class LeaveApplicationController {
         return ResponseEntity.ok(leaves);
     }
     
+    @GetMapping("/pending-approvals/inbox")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<KeysetPage<LeaveApplicationSummaryDTO>> getApprovalInbox(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        Employee manager = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
+        return ResponseEntity.ok(leaveApplicationService.getApprovalInbox(manager, afterCreatedAt, afterId, size));
+    }
+    
+    @GetMapping("/pending-approvals/count")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Long>> countPendingApprovals(@AuthenticationPrincipal UserDetails userDetails) {
+        Employee manager = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
+        return ResponseEntity.ok(Map.of("count", leaveApplicationService.countPendingApprovals(manager)));
+    }
+    
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<List<LeaveApplication>> getLeavesByStatus(@PathVariable LeaveStatus status) {
-        List<LeaveApplication> leaves = leaveApplicationService.getLeavesByStatus(status);
-        return ResponseEntity.ok(leaves);
+    public ResponseEntity<Page<LeaveApplicationSummaryDTO>> getLeavesByStatus(
+            @PathVariable LeaveStatus status,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long leaveTypeId,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            Pageable pageable) {
+        return ResponseEntity.ok(leaveApplicationService.searchLeaveApplications(
+                status, departmentId, leaveTypeId, startDate, endDate, pageable));
     }
     
     @GetMapping("/employee/{employeeId}")
@@ -141,29 +257,59 @@ public class LeaveApplicationController {
     
     @GetMapping("/all")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<List<LeaveApplication>> getAllLeaveRequests() {
-        List<LeaveApplication> leaves = leaveApplicationService.getAllLeaveRequests();
-        return ResponseEntity.ok(leaves);
+    public ResponseEntity<Page<LeaveApplicationSummaryDTO>> getAllLeaveRequests(
+            @RequestParam(required = false) LeaveStatus status,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long leaveTypeId,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            Pageable pageable) {
+        return ResponseEntity.ok(leaveApplicationService.searchLeaveApplications(
+                status, departmentId, leaveTypeId, startDate, endDate, pageable));
     }
     
     @GetMapping("/approved")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<List<LeaveApplication>> getApprovedLeaves() {
-        List<LeaveApplication> leaves = leaveApplicationService.getLeavesByStatus(LeaveStatus.APPROVED);
-        return ResponseEntity.ok(leaves);
+    public ResponseEntity<Page<LeaveApplicationSummaryDTO>> getApprovedLeaves(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long leaveTypeId,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            Pageable pageable) {
+        return ResponseEntity.ok(leaveApplicationService.searchLeaveApplications(
+                LeaveStatus.APPROVED, departmentId, leaveTypeId, startDate, endDate, pageable));
     }
     
     @GetMapping("/rejected")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<List<LeaveApplication>> getRejectedLeaves() {
-        List<LeaveApplication> leaves = leaveApplicationService.getLeavesByStatus(LeaveStatus.REJECTED);
-        return ResponseEntity.ok(leaves);
+    public ResponseEntity<Page<LeaveApplicationSummaryDTO>> getRejectedLeaves(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long leaveTypeId,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            Pageable pageable) {
+        return ResponseEntity.ok(leaveApplicationService.searchLeaveApplications(
+                LeaveStatus.REJECTED, departmentId, leaveTypeId, startDate, endDate, pageable));
     }
     
     @GetMapping("/logs/{leaveApplicationId}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Map<String, Object>>> getLeaveLogs(@PathVariable Long leaveApplicationId) {
-        List<Map<String, Object>> logs = leaveApplicationService.getLeaveApplicationLogs(leaveApplicationId);
+    public ResponseEntity<List<LeaveApplicationLogDTO>> getLeaveLogs(@PathVariable Long leaveApplicationId) {
+        List<LeaveApplicationLogDTO> logs = leaveApplicationService.getLeaveApplicationLogs(leaveApplicationId);
         return ResponseEntity.ok(logs);
     }
+    
+    @GetMapping("/logs/{leaveApplicationId}/paginated")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Page<LeaveApplicationLogDTO>> getLeaveLogsPaginated(@PathVariable Long leaveApplicationId,
+                                                                              Pageable pageable) {
+        return ResponseEntity.ok(leaveApplicationService.getLeaveApplicationLogs(leaveApplicationId, pageable));
+    }
+    
+    private List<Long> parseIds(Map<String, Object> request) {
+        if (!(request.get("ids") instanceof List<?> ids)) {
+            throw new RuntimeException("ids must be a list of leave application ids");
+        }
+        return ids.stream().map(id -> Long.valueOf(id.toString())).toList();
+    }
 }
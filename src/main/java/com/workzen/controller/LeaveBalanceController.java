@@ -2,7 +2,11 @@ package com.workzen.controller;
 
 import com.workzen.entity.Employee;
 import com.workzen.entity.LeaveBalance;
+import com.workzen.entity.LeaveLedgerEntry;
 import com.workzen.entity.LeaveType;
+import com.workzen.enums.Role;
+import com.workzen.scheduler.LeaveAllocationJob;
+import com.workzen.scheduler.LeaveRolloverJob;
 import com.workzen.service.EmployeeService;
 import com.workzen.service.LeaveBalanceService;
 import com.workzen.service.LeaveTypeService;
@@ -26,10 +30,13 @@ public class LeaveBalanceController {
     private final LeaveBalanceService leaveBalanceService;
     private final EmployeeService employeeService;
     private final LeaveTypeService leaveTypeService;
+    private final LeaveAllocationJob leaveAllocationJob;
+    private final LeaveRolloverJob leaveRolloverJob;
     
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<LeaveBalance> createLeaveBalance(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<LeaveBalance> createLeaveBalance(@AuthenticationPrincipal UserDetails userDetails,
+                                                           @RequestBody Map<String, Object> request) {
         Long employeeId = Long.valueOf(request.get("employeeId").toString());
         Long leaveTypeId = Long.valueOf(request.get("leaveTypeId").toString());
         Integer year = Integer.valueOf(request.get("year").toString());
@@ -38,15 +45,17 @@ public class LeaveBalanceController {
         Employee employee = employeeService.findById(employeeId);
         LeaveType leaveType = leaveTypeService.findById(leaveTypeId);
         
-        LeaveBalance created = leaveBalanceService.createLeaveBalance(employee, leaveType, year, totalAllocated);
+        LeaveBalance created = leaveBalanceService.createLeaveBalance(employee, leaveType, year, totalAllocated,
+                userDetails.getUsername());
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<LeaveBalance> updateLeaveBalance(@PathVariable Long id, @RequestBody Map<String, Double> request) {
+    public ResponseEntity<LeaveBalance> updateLeaveBalance(@AuthenticationPrincipal UserDetails userDetails,
+                                                           @PathVariable Long id, @RequestBody Map<String, Double> request) {
         Double totalAllocated = request.get("totalAllocated");
-        LeaveBalance updated = leaveBalanceService.updateLeaveBalance(id, totalAllocated);
+        LeaveBalance updated = leaveBalanceService.updateLeaveBalance(id, totalAllocated, userDetails.getUsername());
         return ResponseEntity.ok(updated);
     }
     
@@ -57,6 +66,20 @@ public class LeaveBalanceController {
         return ResponseEntity.ok(leaveBalance);
     }
     
+    @GetMapping("/{id}/ledger")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<LeaveLedgerEntry>> getLedger(@AuthenticationPrincipal UserDetails userDetails,
+                                                            @PathVariable Long id) {
+        Employee currentUser = employeeService.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
+        LeaveBalance leaveBalance = leaveBalanceService.findById(id);
+        boolean isHrOrAdmin = currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.HR_MANAGER;
+        if (!isHrOrAdmin && !leaveBalance.getEmployee().getId().equals(currentUser.getId())) {
+            throw new RuntimeException("You can only view your own leave ledger");
+        }
+        return ResponseEntity.ok(leaveBalanceService.getLedger(id));
+    }
+    
     @GetMapping("/my-balances")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<LeaveBalance>> getMyLeaveBalances(@AuthenticationPrincipal UserDetails userDetails) {
@@ -83,6 +106,18 @@ public class LeaveBalanceController {
         return ResponseEntity.ok(balances);
     }
     
+    @PostMapping("/allocate/{year}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LeaveAllocationJob.AllocationResult> allocateYear(@PathVariable Integer year) {
+        return ResponseEntity.ok(leaveAllocationJob.runFor(year));
+    }
+    
+    @PostMapping("/rollover/{year}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LeaveRolloverJob.RolloverResult> rolloverYear(@PathVariable Integer year) {
+        return ResponseEntity.ok(leaveRolloverJob.runFor(year));
+    }
+    
     @PostMapping("/employee/{employeeId}/initialize/{year}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
     public ResponseEntity<Void> initializeLeaveBalances(@PathVariable Long employeeId, @PathVariable Integer year) {
@@ -0,0 +1,70 @@
+package com.workzen.controller;
+
+import com.workzen.entity.Shift;
+import com.workzen.service.ShiftService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shifts")
+@RequiredArgsConstructor
+public class ShiftController {
+    
+    private final ShiftService shiftService;
+    
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Shift> createShift(@RequestBody Shift shift) {
+        Shift created = shiftService.createShift(shift);
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    }
+    
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Shift> updateShift(@PathVariable Long id, @RequestBody Shift shift) {
+        Shift updated = shiftService.updateShift(id, shift);
+        return ResponseEntity.ok(updated);
+    }
+    
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Shift> getShiftById(@PathVariable Long id) {
+        Shift shift = shiftService.findById(id);
+        return ResponseEntity.ok(shift);
+    }
+    
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<Shift>> getAllShifts() {
+        List<Shift> shifts = shiftService.findAll();
+        return ResponseEntity.ok(shifts);
+    }
+    
+    @GetMapping("/active")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<Shift>> getActiveShifts() {
+        List<Shift> shifts = shiftService.findAllActive();
+        return ResponseEntity.ok(shifts);
+    }
+    
+    @PutMapping("/assign/employee/{employeeId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Void> assignToEmployee(@PathVariable Long employeeId,
+                                                 @RequestParam(required = false) Long shiftId) {
+        shiftService.assignToEmployee(employeeId, shiftId);
+        return ResponseEntity.ok().build();
+    }
+    
+    @PutMapping("/assign/department/{departmentId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Void> assignToDepartment(@PathVariable Long departmentId,
+                                                   @RequestParam(required = false) Long shiftId) {
+        shiftService.assignToDepartment(departmentId, shiftId);
+        return ResponseEntity.ok().build();
+    }
+}
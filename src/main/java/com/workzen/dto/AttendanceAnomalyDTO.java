@@ -0,0 +1,26 @@
+package com.workzen.dto;
+
+import com.workzen.enums.AttendanceAnomalyType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceAnomalyDTO {
+    private Long id;
+    private Long attendanceId;
+    private LocalDate date;
+    private AttendanceAnomalyType type;
+    private String details;
+    private Boolean resolved;
+    private LocalDateTime detectedAt;
+    
+    private Long employeeId;
+    private String employeeName;
+    private String employeeCode;
+}
@@ -23,6 +23,8 @@ public class AttendanceDTO {
     private String remarks;
     private Boolean isOvertime;
     private Double overtimeHours;
+    private Integer lateMinutes;
+    private Integer earlyLeaveMinutes;
     
     // Employee basic info (avoid full employee object)
     private Long employeeId;
@@ -0,0 +1,79 @@
+package com.workzen.dto;
+
+import com.workzen.enums.AttendanceStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class AttendanceStatsDTO {
+    private long presentDays;
+    private long absentDays;
+    private long halfDays;
+    private long wfhDays;
+    private long onLeaveDays;
+    private long holidayDays;
+    private long weekendDays;
+    private double totalHours;
+    private double overtimeHours;
+
+    // Used by JPQL constructor expressions - SUM() yields null when no rows match
+    public AttendanceStatsDTO(Long presentDays, Long absentDays, Long halfDays, Long wfhDays,
+                              Long onLeaveDays, Long holidayDays, Long weekendDays,
+                              Double totalHours, Double overtimeHours) {
+        this.presentDays = presentDays != null ? presentDays : 0;
+        this.absentDays = absentDays != null ? absentDays : 0;
+        this.halfDays = halfDays != null ? halfDays : 0;
+        this.wfhDays = wfhDays != null ? wfhDays : 0;
+        this.onLeaveDays = onLeaveDays != null ? onLeaveDays : 0;
+        this.holidayDays = holidayDays != null ? holidayDays : 0;
+        this.weekendDays = weekendDays != null ? weekendDays : 0;
+        this.totalHours = totalHours != null ? totalHours : 0.0;
+        this.overtimeHours = overtimeHours != null ? overtimeHours : 0.0;
+    }
+
+    public AttendanceStatsDTO add(AttendanceStatsDTO other) {
+        presentDays += other.presentDays;
+        absentDays += other.absentDays;
+        halfDays += other.halfDays;
+        wfhDays += other.wfhDays;
+        onLeaveDays += other.onLeaveDays;
+        holidayDays += other.holidayDays;
+        weekendDays += other.weekendDays;
+        totalHours += other.totalHours;
+        overtimeHours += other.overtimeHours;
+        return this;
+    }
+
+    public AttendanceStatsDTO addStatus(AttendanceStatus status, long count, Double hours, Double overtime) {
+        switch (status) {
+            case PRESENT -> presentDays += count;
+            case ABSENT -> absentDays += count;
+            case HALF_DAY -> halfDays += count;
+            case WORK_FROM_HOME -> wfhDays += count;
+            case ON_LEAVE -> onLeaveDays += count;
+            case HOLIDAY -> holidayDays += count;
+            case WEEKEND -> weekendDays += count;
+        }
+        totalHours += hours != null ? hours : 0.0;
+        overtimeHours += overtime != null ? overtime : 0.0;
+        return this;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("presentDays", presentDays);
+        stats.put("absentDays", absentDays);
+        stats.put("halfDays", halfDays);
+        stats.put("wfhDays", wfhDays);
+        stats.put("onLeaveDays", onLeaveDays);
+        stats.put("holidayDays", holidayDays);
+        stats.put("weekendDays", weekendDays);
+        stats.put("totalHours", totalHours);
+        stats.put("overtimeHours", overtimeHours);
+        return stats;
+    }
+}
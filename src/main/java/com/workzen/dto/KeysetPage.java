@@ -0,0 +1,22 @@
+package com.workzen.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a (createdAt, id) seek. Pass nextCreatedAt and nextId back to get the
+ * following page; both are null once hasMore is false.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> content;
+    private LocalDateTime nextCreatedAt;
+    private Long nextId;
+    private boolean hasMore;
+}
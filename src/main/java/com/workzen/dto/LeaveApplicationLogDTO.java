@@ -0,0 +1,39 @@
+package com.workzen.dto;
+
+import com.workzen.enums.LeaveStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveApplicationLogDTO {
+    private Long id;
+    private LeaveStatus previousStatus;
+    private LeaveStatus newStatus;
+    private String actionType;
+    private String remarks;
+    private LocalDateTime changedAt;
+    private ChangedBy changedBy;
+    
+    // Flat constructor for JPQL projections; changedBy stays null for system entries
+    public LeaveApplicationLogDTO(Long id, LeaveStatus previousStatus, LeaveStatus newStatus, String actionType,
+                                  String remarks, LocalDateTime changedAt, Long changedById,
+                                  String changedByFirstName, String changedByLastName, String changedByEmail) {
+        this(id, previousStatus, newStatus, actionType, remarks, changedAt,
+                changedById != null ? new ChangedBy(changedById, changedByFirstName, changedByLastName, changedByEmail) : null);
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChangedBy {
+        private Long id;
+        private String firstName;
+        private String lastName;
+        private String email;
+    }
+}
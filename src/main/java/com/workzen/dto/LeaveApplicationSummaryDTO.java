@@ -0,0 +1,37 @@
+package com.workzen.dto;
+
+import com.workzen.enums.LeaveStatus;
+import com.workzen.util.LeaveUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveApplicationSummaryDTO {
+    private Long id;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long durationMinutes;
+    private Boolean isHalfDay;
+    private LeaveStatus status;
+    private String reason;
+    private LocalDateTime createdAt;
+    
+    private Long leaveTypeId;
+    private String leaveTypeName;
+    
+    // Employee basic info (avoid full employee object)
+    private Long employeeId;
+    private String employeeName;
+    private String employeeCode;
+    private String departmentName;
+    
+    public double getNumberOfDays() {
+        return LeaveUnits.toDays(durationMinutes);
+    }
+}
@@ -0,0 +1,25 @@
+package com.workzen.dto;
+
+import com.workzen.enums.ApprovalLevel;
+import com.workzen.enums.ApprovalStepStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveApprovalStepDTO {
+    private Long id;
+    private Integer stepOrder;
+    private ApprovalLevel level;
+    private ApprovalStepStatus status;
+    private Long approverId;
+    private String approverName;
+    private Long decidedById;
+    private String decidedByName;
+    private LocalDateTime decidedAt;
+    private String remarks;
+}
@@ -0,0 +1,27 @@
+package com.workzen.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Columnar month grid for a team: row i of {@code statuses} belongs to {@code employeeIds[i]}
+ * and holds one status code per day of the month (see AttendanceStatus#getCode).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamAttendanceCalendarDTO {
+    private int year;
+    private int month;
+    private int days;
+    private long[] employeeIds;
+    private String[] employeeCodes;
+    private String[] employeeNames;
+    private String[] statuses;
+    private Map<Character, String> legend;
+}
@@ -0,0 +1,42 @@
+package com.workzen.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Who is off on each day of a window for a team. Coverage is the share of the team still
+ * working: {@code coverage} counts approved leave only, {@code projectedCoverage} also counts
+ * pending applications, i.e. what staffing would look like if they were all approved.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamLeaveCalendarDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int teamSize;
+    private double minCoverage;
+    private List<Day> days;
+    // Days whose projected coverage falls below minCoverage
+    private List<LocalDate> coverageWarnings;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private int onLeave;
+        private int pending;
+        private long[] employeeIdsOnLeave;
+        private long[] employeeIdsPending;
+        private double coverage;
+        private double projectedCoverage;
+        private boolean belowCoverage;
+    }
+}
@@ -0,0 +1,18 @@
+package com.workzen.dto.employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeDirectoryEntry {
+    
+    private Long id;
+    private String employeeCode;
+    private String name;
+    private String departmentName;
+    private String designationName;
+    private boolean active;
+}
@@ -0,0 +1,21 @@
+package com.workzen.dto.employee;
+
+import com.workzen.enums.EmployeeStatus;
+
+/**
+ * One employee search hit, read straight from the search query (no entity is loaded).
+ * Field names follow EmployeeResponse (employeeId is the employee code). Higher scores are
+ * better matches.
+ */
+public interface EmployeeSearchResult {
+    Long getId();
+    String getEmployeeId();
+    String getFirstName();
+    String getLastName();
+    String getFullName();
+    String getEmail();
+    EmployeeStatus getStatus();
+    String getDepartment();
+    String getDesignation();
+    Double getScore();
+}
@@ -11,6 +11,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "attendance", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"employee_id", "date"})
+}, indexes = {
+    // Keyset position used by incremental jobs reading recent writes
+    @Index(name = "idx_attendance_updated_at_id", columnList = "updated_at, id"),
+    // Month ranges for rollup rebuilds and the earliest recorded date
+    @Index(name = "idx_attendance_date", columnList = "date")
 })
 @Data
 @EqualsAndHashCode(callSuper = false)
@@ -51,4 +56,25 @@ public class Attendance extends BaseEntity {
     
     @Column(name = "overtime_hours")
     private Double overtimeHours;
+    
+    // Minutes after shift start (beyond the grace period) the employee checked in
+    @Column(name = "late_minutes")
+    private Integer lateMinutes;
+    
+    // Minutes before shift end the employee checked out
+    @Column(name = "early_leave_minutes")
+    private Integer earlyLeaveMinutes;
+    
+    // Where the check-in came from, recorded on the first accepted punch
+    @Column(name = "check_in_ip", length = 45)
+    private String checkInIp;
+    
+    @Column(name = "check_in_latitude")
+    private Double checkInLatitude;
+    
+    @Column(name = "check_in_longitude")
+    private Double checkInLongitude;
+    
+    @Column(name = "check_in_user_agent")
+    private String checkInUserAgent;
 }
@@ -0,0 +1,50 @@
+package com.workzen.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.workzen.enums.AttendanceAnomalyType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * A suspicious attendance row flagged by AttendanceAnomalyJob for HR review.
+ * The attendance id is kept as a plain column: a partitioned attendance table
+ * can't be the target of a foreign key on id alone.
+ */
+@Entity
+@Table(name = "attendance_anomalies", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"attendance_id", "type"})
+}, indexes = {
+    @Index(name = "idx_attendance_anomalies_resolved_date", columnList = "resolved, date")
+})
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class AttendanceAnomaly extends BaseEntity {
+    
+    @Column(name = "attendance_id", nullable = false)
+    private Long attendanceId;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "employee_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private Employee employee;
+    
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 30, nullable = false)
+    private AttendanceAnomalyType type;
+    
+    @Column(name = "details", columnDefinition = "TEXT")
+    private String details;
+    
+    @Column(name = "resolved", nullable = false)
+    @Builder.Default
+    private Boolean resolved = false;
+}
@@ -0,0 +1,69 @@
+package com.workzen.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per employee, per month attendance totals. Maintained incrementally on every
+ * attendance write (see AttendanceRollupService) so stats over closed months
+ * never have to scan raw attendance rows.
+ */
+@Entity
+@Table(name = "attendance_monthly_rollup", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"employee_id", "year", "month"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Column(nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Integer month;
+
+    @Column(name = "present_days", nullable = false)
+    private Integer presentDays = 0;
+
+    @Column(name = "absent_days", nullable = false)
+    private Integer absentDays = 0;
+
+    @Column(name = "half_days", nullable = false)
+    private Integer halfDays = 0;
+
+    @Column(name = "wfh_days", nullable = false)
+    private Integer wfhDays = 0;
+
+    @Column(name = "on_leave_days", nullable = false)
+    private Integer onLeaveDays = 0;
+
+    @Column(name = "holiday_days", nullable = false)
+    private Integer holidayDays = 0;
+
+    @Column(name = "weekend_days", nullable = false)
+    private Integer weekendDays = 0;
+
+    @Column(name = "total_hours", nullable = false)
+    private Double totalHours = 0.0;
+
+    @Column(name = "overtime_hours", nullable = false)
+    private Double overtimeHours = 0.0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
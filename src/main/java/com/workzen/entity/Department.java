@@ -24,6 +24,10 @@ public class Department extends BaseEntity {
     @JoinColumn(name = "manager_id")
     private Employee manager;
     
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shift_id")
+    private Shift shift;
+    
     @Column(name = "is_active")
     @Builder.Default
     private Boolean isActive = true;
@@ -97,6 +97,16 @@ public class Employee extends BaseEntity implements UserDetails {
     @JoinColumn(name = "manager_id")
     private Employee manager;
     
+    // Work schedule; falls back to the department's shift, then the default shift
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shift_id")
+    private Shift shift;
+    
+    // Holidays and weekends that apply to this employee; falls back to the default calendar
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "holiday_calendar_id")
+    private HolidayCalendar holidayCalendar;
+    
     // Emergency contact
     @Column(name = "emergency_contact_name", length = 100)
     private String emergencyContactName;
@@ -0,0 +1,31 @@
+package com.workzen.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "holidays", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"calendar_id", "date"})
+})
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Holiday extends BaseEntity {
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "calendar_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private HolidayCalendar calendar;
+    
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+    
+    @Column(nullable = false, length = 100)
+    private String name;
+}
@@ -0,0 +1,33 @@
+package com.workzen.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "holiday_calendars")
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class HolidayCalendar extends BaseEntity {
+    
+    @Column(nullable = false, length = 100, unique = true)
+    private String name;
+    
+    // Office or region the calendar belongs to, e.g. "Mumbai" or "US"
+    @Column(length = 100)
+    private String location;
+    
+    // Bit (DayOfWeek.getValue() - 1) is set for every weekend day; 96 = Saturday and Sunday
+    @Column(name = "weekend_days", nullable = false)
+    @Builder.Default
+    private Integer weekendDays = 96;
+    
+    // Applies to employees without a calendar of their own
+    @Column(name = "is_default")
+    @Builder.Default
+    private Boolean isDefault = false;
+}
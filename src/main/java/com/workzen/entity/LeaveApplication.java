@@ -2,17 +2,28 @@ package com.workzen.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.workzen.enums.LeaveStatus;
+import com.workzen.util.LeaveUnits;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "leave_applications")
+@Table(name = "leave_applications", indexes = {
+    // "Is this employee on leave on date X" lookups
+    @Index(name = "idx_leave_applications_employee_status_dates", columnList = "employee_id, status, start_date, end_date"),
+    // "Who is on leave on date X" lookups across all employees
+    @Index(name = "idx_leave_applications_status_dates", columnList = "status, start_date, end_date"),
+    // Keyset position of the approval inbox
+    @Index(name = "idx_leave_applications_status_created_at_id", columnList = "status, created_at, id"),
+    // Newest-first HR list without a status filter
+    @Index(name = "idx_leave_applications_created_at_id", columnList = "created_at, id")
+})
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Builder
@@ -35,8 +46,10 @@ public class LeaveApplication extends BaseEntity {
     @Column(name = "end_date", nullable = false)
     private LocalDate endDate;
     
-    @Column(name = "number_of_days", nullable = false)
-    private Double numberOfDays;
+    // Leave taken, in minutes (see LeaveUnits): a full day, half a day or a number of hours on a single day
+    @Column(name = "duration_minutes", nullable = false)
+    @ColumnDefault("0")
+    private Long durationMinutes;
     
     @Column(name = "reason", columnDefinition = "TEXT")
     private String reason;
@@ -59,4 +72,8 @@ public class LeaveApplication extends BaseEntity {
     @Column(name = "is_half_day")
     @Builder.Default
     private Boolean isHalfDay = false;
+    
+    public double getNumberOfDays() {
+        return LeaveUnits.toDays(durationMinutes);
+    }
 }
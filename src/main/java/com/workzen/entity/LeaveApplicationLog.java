@@ -11,7 +11,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "leave_application_logs")
+@Table(name = "leave_application_logs", indexes = {
+    @Index(name = "idx_leave_application_logs_application_changed_at", columnList = "leave_application_id, changed_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,7 +28,8 @@ public class LeaveApplicationLog {
     @JoinColumn(name = "leave_application_id", nullable = false)
     private LeaveApplication leaveApplication;
     
-    @Column(nullable = false)
+    // Null for the submission entry
+    @Column
     @Enumerated(EnumType.STRING)
     private LeaveStatus previousStatus;
     
@@ -0,0 +1,61 @@
+package com.workzen.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.workzen.enums.ApprovalLevel;
+import com.workzen.enums.ApprovalStepStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One level of a leave application's approval chain. Exactly one step per application is
+ * PENDING at a time; HR steps have no named approver and are open to every HR user.
+ */
+@Entity
+@Table(name = "leave_approval_steps", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"leave_application_id", "step_order"})
+}, indexes = {
+    // Per-approver pending queues
+    @Index(name = "idx_leave_approval_steps_approver_status", columnList = "approver_id, status"),
+    // The shared HR queue
+    @Index(name = "idx_leave_approval_steps_level_status", columnList = "level, status")
+})
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class LeaveApprovalStep extends BaseEntity {
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "leave_application_id", nullable = false)
+    private LeaveApplication leaveApplication;
+    
+    @Column(name = "step_order", nullable = false)
+    private Integer stepOrder;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "level", length = 20, nullable = false)
+    private ApprovalLevel level;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "approver_id")
+    private Employee approver;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    @Builder.Default
+    private ApprovalStepStatus status = ApprovalStepStatus.WAITING;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "decided_by_id")
+    private Employee decidedBy;
+    
+    @Column(name = "decided_at")
+    private LocalDateTime decidedAt;
+    
+    @Column(name = "remarks", columnDefinition = "TEXT")
+    private String remarks;
+}
@@ -1,8 +1,10 @@
 package com.workzen.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.workzen.util.LeaveUnits;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "leave_balances", uniqueConstraints = {
@@ -27,15 +29,46 @@ public class LeaveBalance extends BaseEntity {
     @Column(nullable = false)
     private Integer year;
     
-    @Column(name = "total_allocated", nullable = false)
+    // Amounts are whole minutes (see LeaveUnits); the day getters below are for display
+    @Column(name = "allocated_minutes", nullable = false)
+    @ColumnDefault("0")
     @Builder.Default
-    private Double totalAllocated = 0.0;
+    private Long allocatedMinutes = 0L;
     
-    @Column(name = "used", nullable = false)
+    @Column(name = "used_minutes", nullable = false)
+    @ColumnDefault("0")
     @Builder.Default
-    private Double used = 0.0;
+    private Long usedMinutes = 0L;
     
-    @Column(name = "balance", nullable = false)
+    @Column(name = "balance_minutes", nullable = false)
+    @ColumnDefault("0")
     @Builder.Default
-    private Double balance = 0.0;
+    private Long balanceMinutes = 0L;
+    
+    // Part of allocatedMinutes brought over from the previous year
+    @Column(name = "carried_forward_minutes", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long carriedForwardMinutes = 0L;
+    
+    // Set once year-end rollover has closed this balance (carried forward, encashed or lapsed)
+    @Column(name = "rolled_over")
+    @Builder.Default
+    private Boolean rolledOver = false;
+    
+    public double getTotalAllocated() {
+        return LeaveUnits.toDays(allocatedMinutes);
+    }
+    
+    public double getUsed() {
+        return LeaveUnits.toDays(usedMinutes);
+    }
+    
+    public double getBalance() {
+        return LeaveUnits.toDays(balanceMinutes);
+    }
+    
+    public double getCarriedForward() {
+        return LeaveUnits.toDays(carriedForwardMinutes);
+    }
 }
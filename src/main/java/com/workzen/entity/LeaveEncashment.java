@@ -0,0 +1,56 @@
+package com.workzen.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Unused leave paid out at year end, written by the rollover engine and picked up by the
+ * next payroll run for the employee.
+ */
+@Entity
+@Table(name = "leave_encashments", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"employee_id", "leave_type_id", "year"})
+}, indexes = {
+    @Index(name = "idx_leave_encashments_employee_processed", columnList = "employee_id, processed")
+})
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class LeaveEncashment extends BaseEntity {
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "employee_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private Employee employee;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "leave_type_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private LeaveType leaveType;
+    
+    // Leave year the days were earned in
+    @Column(nullable = false)
+    private Integer year;
+    
+    @Column(nullable = false)
+    private Double days;
+    
+    @Column(name = "daily_rate", nullable = false)
+    private Double dailyRate;
+    
+    @Column(nullable = false)
+    private Double amount;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean processed = false;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payroll_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private Payroll payroll;
+}
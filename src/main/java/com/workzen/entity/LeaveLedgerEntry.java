@@ -0,0 +1,68 @@
+package com.workzen.entity;
+
+import com.workzen.enums.LeaveLedgerEntryType;
+import com.workzen.util.LeaveUnits;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only history of every change to a leave balance. Rows are written in the same
+ * statement as the balance update (see LeaveBalanceRepository) and never modified, so a
+ * balance can always be explained by summing its entries.
+ */
+@Entity
+@Table(name = "leave_ledger_entries", indexes = {
+    @Index(name = "idx_leave_ledger_balance", columnList = "leave_balance_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveLedgerEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "leave_balance_id", nullable = false, updatable = false)
+    private Long leaveBalanceId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20, updatable = false)
+    private LeaveLedgerEntryType entryType;
+    
+    // Signed change to the balance in minutes: negative for deductions
+    @Column(name = "minutes", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long minutes;
+    
+    @Column(name = "balance_after_minutes", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long balanceAfterMinutes;
+    
+    @Column(name = "leave_application_id", updatable = false)
+    private Long leaveApplicationId;
+    
+    @Column(length = 500, updatable = false)
+    private String remarks;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "created_by", updatable = false)
+    private String createdBy;
+    
+    public double getDays() {
+        return LeaveUnits.toDays(minutes);
+    }
+    
+    public double getBalanceAfter() {
+        return LeaveUnits.toDays(balanceAfterMinutes);
+    }
+}
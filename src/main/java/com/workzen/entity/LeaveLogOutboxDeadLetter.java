@@ -0,0 +1,57 @@
+package com.workzen.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row LeaveAuditLogRelayJob could not move into leave_application_logs (for example
+ * because its leave application or employee no longer exists), kept with the error so it can be
+ * inspected without holding up the rows behind it. Statuses stay plain strings so any row fits.
+ */
+@Entity
+@Table(name = "leave_log_outbox_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveLogOutboxDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "outbox_id", nullable = false)
+    private Long outboxId;
+
+    @Column(name = "leave_application_id")
+    private Long leaveApplicationId;
+
+    @Column(name = "previous_status", length = 20)
+    private String previousStatus;
+
+    @Column(name = "new_status", length = 20)
+    private String newStatus;
+
+    @Column(name = "changed_by_id")
+    private Long changedById;
+
+    @Column(name = "remarks", length = 1000)
+    private String remarks;
+
+    @Column(name = "action_type", length = 50)
+    private String actionType;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,51 @@
+package com.workzen.entity;
+
+import com.workzen.enums.LeaveStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A leave audit log row waiting to be moved into leave_application_logs. Rows are inserted in
+ * the same transaction as the state change they describe (see LeaveAuditLogWriter), so a log is
+ * never lost or written for a rolled-back change; LeaveAuditLogRelayJob moves them in batches.
+ */
+@Entity
+@Table(name = "leave_log_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveLogOutboxEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "leave_application_id", nullable = false)
+    private Long leaveApplicationId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private LeaveStatus previousStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false, length = 20)
+    private LeaveStatus newStatus;
+    
+    @Column(name = "changed_by_id")
+    private Long changedById;
+    
+    @Column(name = "remarks", length = 1000)
+    private String remarks;
+    
+    @Column(name = "action_type", length = 50)
+    private String actionType;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -34,4 +34,20 @@ public class LeaveType extends BaseEntity {
     @Column(name = "is_active")
     @Builder.Default
     private Boolean isActive = true;
+    
+    // Unused days move into next year's balance, up to maxCarryForwardDays (no cap when null)
+    @Column(name = "is_carry_forward")
+    @Builder.Default
+    private Boolean isCarryForward = false;
+    
+    @Column(name = "max_carry_forward_days")
+    private Integer maxCarryForwardDays;
+    
+    // Days left after carry-forward are paid out at year end, up to maxEncashmentDays (no cap when null)
+    @Column(name = "is_encashable")
+    @Builder.Default
+    private Boolean isEncashable = false;
+    
+    @Column(name = "max_encashment_days")
+    private Integer maxEncashmentDays;
 }
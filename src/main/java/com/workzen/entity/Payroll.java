@@ -46,6 +46,10 @@ public class Payroll extends BaseEntity {
     @Column(name = "bonus")
     private Double bonus;
     
+    // Paid out unused leave from year-end rollover
+    @Column(name = "leave_encashment")
+    private Double leaveEncashment;
+    
     @Column(name = "gross_salary", nullable = false)
     private Double grossSalary;
     
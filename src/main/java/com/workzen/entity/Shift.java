@@ -0,0 +1,46 @@
+package com.workzen.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Entity
+@Table(name = "shifts")
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Shift extends BaseEntity {
+    
+    @Column(nullable = false, length = 50, unique = true)
+    private String name;
+    
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+    
+    // Earlier than startTime means the shift ends on the next day
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+    
+    @Column(name = "grace_minutes")
+    @Builder.Default
+    private Integer graceMinutes = 15;
+    
+    // Bit (DayOfWeek.getValue() - 1) is set for every working day; 31 = Monday to Friday
+    @Column(name = "working_days", nullable = false)
+    @Builder.Default
+    private Integer workingDays = 31;
+    
+    // Applies to employees with no shift of their own or on their department
+    @Column(name = "is_default")
+    @Builder.Default
+    private Boolean isDefault = false;
+    
+    @Column(name = "is_active")
+    @Builder.Default
+    private Boolean isActive = true;
+}
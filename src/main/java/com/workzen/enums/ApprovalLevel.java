@@ -0,0 +1,20 @@
+package com.workzen.enums;
+
+public enum ApprovalLevel {
+    // The applicant's reporting manager
+    MANAGER("Manager"),
+    // The manager of the applicant's department
+    DEPARTMENT_HEAD("Department Head"),
+    // Anyone with the ADMIN or HR_MANAGER role
+    HR("HR");
+    
+    private final String displayName;
+    
+    ApprovalLevel(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
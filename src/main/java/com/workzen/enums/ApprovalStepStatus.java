@@ -0,0 +1,23 @@
+package com.workzen.enums;
+
+public enum ApprovalStepStatus {
+    // Earlier steps still have to be decided
+    WAITING("Waiting"),
+    // The step currently in the approver's queue
+    PENDING("Pending"),
+    APPROVED("Approved"),
+    REJECTED("Rejected"),
+    // Not needed any more: an earlier step rejected, or HR decided over it
+    SKIPPED("Skipped"),
+    CANCELLED("Cancelled");
+    
+    private final String displayName;
+    
+    ApprovalStepStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,22 @@
+package com.workzen.enums;
+
+public enum AttendanceAnomalyType {
+    // Check-in within seconds of a different employee's check-in (possible buddy punching)
+    SHARED_CHECK_IN_TIME("Shared Check-in Time"),
+    // Check-out before check-in, or a shift longer than anyone can work
+    IMPOSSIBLE_DURATION("Impossible Duration"),
+    // Check-in time far outside the employee's own usual pattern
+    UNUSUAL_CHECK_IN_TIME("Unusual Check-in Time"),
+    // Worked hours far outside the employee's own usual pattern
+    UNUSUAL_DURATION("Unusual Duration");
+    
+    private final String displayName;
+    
+    AttendanceAnomalyType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -1,21 +1,30 @@
 package com.workzen.enums;
 
 public enum AttendanceStatus {
-    PRESENT("Present"),
-    ABSENT("Absent"),
-    HALF_DAY("Half Day"),
-    WORK_FROM_HOME("Work From Home"),
-    ON_LEAVE("On Leave"),
-    HOLIDAY("Holiday"),
-    WEEKEND("Weekend");
+    PRESENT("Present", 'P'),
+    ABSENT("Absent", 'A'),
+    HALF_DAY("Half Day", 'H'),
+    WORK_FROM_HOME("Work From Home", 'W'),
+    ON_LEAVE("On Leave", 'L'),
+    HOLIDAY("Holiday", 'O'),
+    WEEKEND("Weekend", 'E');
+    
+    // Code used in compact calendar payloads for days without an attendance record
+    public static final char NO_RECORD = '-';
     
     private final String displayName;
+    private final char code;
     
-    AttendanceStatus(String displayName) {
+    AttendanceStatus(String displayName, char code) {
         this.displayName = displayName;
+        this.code = code;
     }
     
     public String getDisplayName() {
         return displayName;
     }
+    
+    public char getCode() {
+        return code;
+    }
 }
@@ -0,0 +1,21 @@
+package com.workzen.enums;
+
+public enum LeaveLedgerEntryType {
+    ALLOCATION("Allocation"),
+    CARRY_FORWARD("Carry Forward"),
+    ADJUSTMENT("Adjustment"),
+    DEDUCTION("Deduction"),
+    RESTORATION("Restoration"),
+    ENCASHMENT("Encashment"),
+    LAPSE("Lapse");
+    
+    private final String displayName;
+    
+    LeaveLedgerEntryType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
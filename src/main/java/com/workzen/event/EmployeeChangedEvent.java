@@ -0,0 +1,8 @@
+package com.workzen.event;
+
+/**
+ * Published whenever an employee is created or any of their details change,
+ * so in-memory caches keyed by employee can refresh that entry.
+ */
+public record EmployeeChangedEvent(Long employeeId) {
+}
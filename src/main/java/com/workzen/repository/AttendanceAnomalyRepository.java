@@ -0,0 +1,42 @@
+package com.workzen.repository;
+
+import com.workzen.dto.AttendanceAnomalyDTO;
+import com.workzen.entity.AttendanceAnomaly;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface AttendanceAnomalyRepository extends JpaRepository<AttendanceAnomaly, Long> {
+    
+    @Query(value = "SELECT new com.workzen.dto.AttendanceAnomalyDTO(" +
+                   "x.id, x.attendanceId, x.date, x.type, x.details, x.resolved, x.createdAt, " +
+                   "e.id, CONCAT(e.firstName, ' ', e.lastName), e.employeeCode) " +
+                   "FROM AttendanceAnomaly x JOIN x.employee e " +
+                   "WHERE x.resolved = :resolved",
+           countQuery = "SELECT COUNT(x) FROM AttendanceAnomaly x WHERE x.resolved = :resolved")
+    Page<AttendanceAnomalyDTO> findDtosByResolved(@Param("resolved") boolean resolved, Pageable pageable);
+    
+    /**
+     * Records an anomaly unless the same type was already flagged for the row, so re-scanning is harmless.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO attendance_anomalies (attendance_id, employee_id, date, type, details, resolved, " +
+                   "created_at, updated_at, created_by, version) " +
+                   "VALUES (:attendanceId, :employeeId, :date, :type, :details, false, now(), now(), 'system', 0) " +
+                   "ON CONFLICT (attendance_id, type) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("attendanceId") Long attendanceId,
+                       @Param("employeeId") Long employeeId,
+                       @Param("date") LocalDate date,
+                       @Param("type") String type,
+                       @Param("details") String details);
+}
@@ -0,0 +1,94 @@
+package com.workzen.repository;
+
+import com.workzen.dto.AttendanceStatsDTO;
+import com.workzen.entity.AttendanceMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface AttendanceMonthlyRollupRepository extends JpaRepository<AttendanceMonthlyRollup, Long> {
+
+    @Query("SELECT new com.workzen.dto.AttendanceStatsDTO(" +
+           "SUM(r.presentDays), SUM(r.absentDays), SUM(r.halfDays), SUM(r.wfhDays), " +
+           "SUM(r.onLeaveDays), SUM(r.holidayDays), SUM(r.weekendDays), " +
+           "SUM(r.totalHours), SUM(r.overtimeHours)) " +
+           "FROM AttendanceMonthlyRollup r " +
+           "WHERE r.employee.id = :employeeId " +
+           "AND (r.year * 100 + r.month) BETWEEN :fromPeriod AND :toPeriod")
+    AttendanceStatsDTO sumByEmployeeAndPeriod(@Param("employeeId") Long employeeId,
+                                              @Param("fromPeriod") int fromPeriod,
+                                              @Param("toPeriod") int toPeriod);
+
+    /**
+     * Adds the given deltas to the employee's bucket for the month, creating it on first write.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO attendance_monthly_rollup (employee_id, year, month, present_days, absent_days, " +
+                   "half_days, wfh_days, on_leave_days, holiday_days, weekend_days, total_hours, overtime_hours, updated_at) " +
+                   "VALUES (:employeeId, :year, :month, :present, :absent, :halfDay, :wfh, :onLeave, :holiday, :weekend, " +
+                   ":totalHours, :overtimeHours, now()) " +
+                   "ON CONFLICT (employee_id, year, month) DO UPDATE SET " +
+                   "present_days = attendance_monthly_rollup.present_days + EXCLUDED.present_days, " +
+                   "absent_days = attendance_monthly_rollup.absent_days + EXCLUDED.absent_days, " +
+                   "half_days = attendance_monthly_rollup.half_days + EXCLUDED.half_days, " +
+                   "wfh_days = attendance_monthly_rollup.wfh_days + EXCLUDED.wfh_days, " +
+                   "on_leave_days = attendance_monthly_rollup.on_leave_days + EXCLUDED.on_leave_days, " +
+                   "holiday_days = attendance_monthly_rollup.holiday_days + EXCLUDED.holiday_days, " +
+                   "weekend_days = attendance_monthly_rollup.weekend_days + EXCLUDED.weekend_days, " +
+                   "total_hours = attendance_monthly_rollup.total_hours + EXCLUDED.total_hours, " +
+                   "overtime_hours = attendance_monthly_rollup.overtime_hours + EXCLUDED.overtime_hours, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int applyDelta(@Param("employeeId") Long employeeId,
+                   @Param("year") int year,
+                   @Param("month") int month,
+                   @Param("present") int present,
+                   @Param("absent") int absent,
+                   @Param("halfDay") int halfDay,
+                   @Param("wfh") int wfh,
+                   @Param("onLeave") int onLeave,
+                   @Param("holiday") int holiday,
+                   @Param("weekend") int weekend,
+                   @Param("totalHours") double totalHours,
+                   @Param("overtimeHours") double overtimeHours);
+
+    @Modifying
+    @Query("DELETE FROM AttendanceMonthlyRollup r WHERE r.year = :year AND r.month = :month")
+    int deleteByYearAndMonth(@Param("year") int year, @Param("month") int month);
+
+    /**
+     * Recomputes every employee's bucket for one month straight from the attendance table.
+     * Used to backfill the rollup and after bulk writes that bypass AttendanceService.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO attendance_monthly_rollup (employee_id, year, month, present_days, absent_days, " +
+                   "half_days, wfh_days, on_leave_days, holiday_days, weekend_days, total_hours, overtime_hours, updated_at) " +
+                   "SELECT a.employee_id, :year, :month, " +
+                   "COUNT(*) FILTER (WHERE a.status = 'PRESENT'), " +
+                   "COUNT(*) FILTER (WHERE a.status = 'ABSENT'), " +
+                   "COUNT(*) FILTER (WHERE a.status = 'HALF_DAY'), " +
+                   "COUNT(*) FILTER (WHERE a.status = 'WORK_FROM_HOME'), " +
+                   "COUNT(*) FILTER (WHERE a.status = 'ON_LEAVE'), " +
+                   "COUNT(*) FILTER (WHERE a.status = 'HOLIDAY'), " +
+                   "COUNT(*) FILTER (WHERE a.status = 'WEEKEND'), " +
+                   "COALESCE(SUM(a.total_hours), 0), COALESCE(SUM(a.overtime_hours), 0), now() " +
+                   "FROM attendance a " +
+                   "WHERE a.date >= :monthStart AND a.date < :nextMonthStart " +
+                   "GROUP BY a.employee_id " +
+                   "ON CONFLICT (employee_id, year, month) DO UPDATE SET " +
+                   "present_days = EXCLUDED.present_days, absent_days = EXCLUDED.absent_days, " +
+                   "half_days = EXCLUDED.half_days, wfh_days = EXCLUDED.wfh_days, " +
+                   "on_leave_days = EXCLUDED.on_leave_days, holiday_days = EXCLUDED.holiday_days, " +
+                   "weekend_days = EXCLUDED.weekend_days, total_hours = EXCLUDED.total_hours, " +
+                   "overtime_hours = EXCLUDED.overtime_hours, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int rebuildMonth(@Param("year") int year,
+                     @Param("month") int month,
+                     @Param("monthStart") LocalDate monthStart,
+                     @Param("nextMonthStart") LocalDate nextMonthStart);
+}
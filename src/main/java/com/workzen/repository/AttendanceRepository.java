@@ -1,16 +1,21 @@
 package com.workzen.repository;
 
+import com.workzen.dto.AttendanceDTO;
 import com.workzen.entity.Attendance;
 import com.workzen.entity.Employee;
 import com.workzen.enums.AttendanceStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +39,27 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                                      @Param("year") int year, 
                                                      @Param("month") int month);
     
+    // Field order must match the AttendanceDTO all-args constructor
+    String ATTENDANCE_DTO_SELECT = "SELECT new com.workzen.dto.AttendanceDTO(" +
+            "a.id, a.date, a.checkIn, a.checkOut, a.totalHours, a.status, a.remarks, " +
+            "a.isOvertime, a.overtimeHours, a.lateMinutes, a.earlyLeaveMinutes, " +
+            "e.id, CONCAT(e.firstName, ' ', e.lastName), e.employeeCode) " +
+            "FROM Attendance a JOIN a.employee e ";
+    
+    @Query(ATTENDANCE_DTO_SELECT +
+           "WHERE e.id = :employeeId AND a.date BETWEEN :startDate AND :endDate " +
+           "ORDER BY a.date DESC")
+    List<AttendanceDTO> findDtosByEmployeeIdAndDateBetween(@Param("employeeId") Long employeeId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+    
+    @Query(value = ATTENDANCE_DTO_SELECT + "WHERE e.id = :employeeId",
+           countQuery = "SELECT COUNT(a) FROM Attendance a WHERE a.employee.id = :employeeId")
+    Page<AttendanceDTO> findDtosByEmployeeId(@Param("employeeId") Long employeeId, Pageable pageable);
+    
+    @Query(ATTENDANCE_DTO_SELECT + "WHERE a.id = :id")
+    Optional<AttendanceDTO> findDtoById(@Param("id") Long id);
+    
     @Query("SELECT COUNT(a) FROM Attendance a " +
            "WHERE a.employee = :employee " +
            "AND a.status = :status " +
@@ -51,4 +77,189 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                                    @Param("endDate") LocalDate endDate);
     
     boolean existsByEmployeeAndDate(Employee employee, LocalDate date);
+    
+    @Query("SELECT a.status AS status, COUNT(a) AS count, " +
+           "SUM(a.totalHours) AS totalHours, SUM(a.overtimeHours) AS overtimeHours " +
+           "FROM Attendance a " +
+           "WHERE a.employee = :employee " +
+           "AND a.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY a.status")
+    List<StatusCount> countByStatusForEmployee(@Param("employee") Employee employee,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Same as countByStatusForEmployee but skips a contiguous window inside the range,
+     * e.g. the months already covered by the monthly rollup.
+     */
+    @Query("SELECT a.status AS status, COUNT(a) AS count, " +
+           "SUM(a.totalHours) AS totalHours, SUM(a.overtimeHours) AS overtimeHours " +
+           "FROM Attendance a " +
+           "WHERE a.employee = :employee " +
+           "AND a.date BETWEEN :startDate AND :endDate " +
+           "AND a.date NOT BETWEEN :excludeFrom AND :excludeTo " +
+           "GROUP BY a.status")
+    List<StatusCount> countByStatusForEmployeeExcluding(@Param("employee") Employee employee,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate,
+                                                        @Param("excludeFrom") LocalDate excludeFrom,
+                                                        @Param("excludeTo") LocalDate excludeTo);
+    
+    @Query("SELECT a.employee.id AS employeeId, a.status AS status, COUNT(a) AS count, " +
+           "SUM(a.totalHours) AS totalHours, SUM(a.overtimeHours) AS overtimeHours " +
+           "FROM Attendance a " +
+           "WHERE a.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY a.employee.id, a.status")
+    List<EmployeeStatusCount> countByEmployeeAndStatus(@Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT a.employee.id AS employeeId, a.status AS status, COUNT(a) AS count, " +
+           "SUM(a.totalHours) AS totalHours, SUM(a.overtimeHours) AS overtimeHours " +
+           "FROM Attendance a JOIN a.employee e " +
+           "WHERE e.department.id = :departmentId " +
+           "AND a.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY a.employee.id, a.status")
+    List<EmployeeStatusCount> countByEmployeeAndStatusForDepartment(@Param("departmentId") Long departmentId,
+                                                                    @Param("startDate") LocalDate startDate,
+                                                                    @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT a.employee.id AS employeeId, a.date AS date, a.status AS status " +
+           "FROM Attendance a " +
+           "WHERE a.employee.id IN :employeeIds " +
+           "AND a.date BETWEEN :startDate AND :endDate")
+    List<AttendanceCell> findCellsByEmployeeIdsAndDateBetween(@Param("employeeIds") Collection<Long> employeeIds,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT MIN(a.date) FROM Attendance a")
+    LocalDate findEarliestDate();
+    
+    /**
+     * Closes up to {@code batchSize} open check-ins for the date at the end of the employee's
+     * shift (employee, then department, then default shift; the policy checkout time when there
+     * is none), or at check-in if that was later, and computes hours and overtime against the
+     * shift length ({@code defaultShiftHours} when there is no shift). Returns rows touched;
+     * callers loop until it returns 0, so a crashed run simply resumes where it left off.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE attendance a SET " +
+                   "check_out = c.closed_at, " +
+                   "total_hours = c.hours, " +
+                   "is_overtime = c.hours > c.standard_hours, " +
+                   "overtime_hours = CASE WHEN c.hours > c.standard_hours THEN c.hours - c.standard_hours ELSE NULL END, " +
+                   "remarks = COALESCE(a.remarks || ' | ', '') || 'Auto checked-out by end-of-day job', " +
+                   "updated_at = now(), " +
+                   "version = COALESCE(a.version, 0) + 1 " +
+                   "FROM (SELECT t.id, t.closed_at, t.standard_hours, " +
+                   "             EXTRACT(EPOCH FROM (t.closed_at - t.check_in)) / 3600.0 AS hours " +
+                   "      FROM (SELECT o.id, o.check_in, " +
+                   "                   GREATEST(o.check_in, o.date + COALESCE(s.end_time, CAST(:checkoutTime AS time)) " +
+                   "                       + CASE WHEN s.end_time <= s.start_time THEN INTERVAL '1 day' ELSE INTERVAL '0' END) AS closed_at, " +
+                   "                   COALESCE(EXTRACT(EPOCH FROM (s.end_time - s.start_time " +
+                   "                       + CASE WHEN s.end_time <= s.start_time THEN INTERVAL '1 day' ELSE INTERVAL '0' END)) / 3600.0, " +
+                   "                       :defaultShiftHours) AS standard_hours " +
+                   "            FROM attendance o " +
+                   "            JOIN employees e ON e.id = o.employee_id " +
+                   "            LEFT JOIN departments d ON d.id = e.department_id " +
+                   "            LEFT JOIN shifts s ON s.id = COALESCE(e.shift_id, d.shift_id, " +
+                   "                 (SELECT ds.id FROM shifts ds WHERE ds.is_default AND ds.is_active ORDER BY ds.id LIMIT 1)) " +
+                   "            WHERE o.date = :date AND o.check_in IS NOT NULL AND o.check_out IS NULL " +
+                   "            ORDER BY o.id LIMIT :batchSize) t) c " +
+                   "WHERE a.id = c.id",
+           nativeQuery = true)
+    int closeOpenCheckIns(@Param("date") LocalDate date,
+                          @Param("checkoutTime") String checkoutTime,
+                          @Param("defaultShiftHours") double defaultShiftHours,
+                          @Param("batchSize") int batchSize);
+    
+    /**
+     * Inserts an ABSENT row (ON_LEAVE when an approved full-day leave covers the date, HOLIDAY when the
+     * date is a holiday in the employee's calendar) for every employee in the id range that was
+     * scheduled to work and has no attendance record for the date. {@code dayBit} is the weekday
+     * bit for the date; employees without a shift follow their calendar's weekend days, and
+     * {@code unscheduledWorkingDay} when there is no calendar either.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO attendance (employee_id, date, status, remarks, is_overtime, " +
+                   "created_at, updated_at, created_by, version) " +
+                   "SELECT e.id, :date, " +
+                   "CASE WHEN EXISTS (SELECT 1 FROM holidays h WHERE h.calendar_id = hc.id AND h.date = :date) " +
+                   "THEN 'HOLIDAY' " +
+                   "WHEN e.status = 'ON_LEAVE' OR EXISTS (SELECT 1 FROM leave_applications la " +
+                   "     WHERE la.employee_id = e.id AND la.status = 'APPROVED' AND la.duration_minutes >= 480 " +
+                   "     AND la.start_date <= :date AND la.end_date >= :date) " +
+                   "THEN 'ON_LEAVE' ELSE 'ABSENT' END, " +
+                   "'Auto-marked by end-of-day job', false, now(), now(), 'system', 0 " +
+                   "FROM employees e " +
+                   "LEFT JOIN departments d ON d.id = e.department_id " +
+                   "LEFT JOIN shifts s ON s.id = COALESCE(e.shift_id, d.shift_id, " +
+                   "     (SELECT ds.id FROM shifts ds WHERE ds.is_default AND ds.is_active ORDER BY ds.id LIMIT 1)) " +
+                   "LEFT JOIN holiday_calendars hc ON hc.id = COALESCE(e.holiday_calendar_id, " +
+                   "     (SELECT dc.id FROM holiday_calendars dc WHERE dc.is_default ORDER BY dc.id LIMIT 1)) " +
+                   "WHERE e.id > :fromId AND e.id <= :toId " +
+                   "AND e.status IN ('ACTIVE', 'PROBATION', 'ON_LEAVE') " +
+                   "AND (e.date_of_joining IS NULL OR e.date_of_joining <= :date) " +
+                   "AND CASE WHEN s.id IS NOT NULL THEN (s.working_days & :dayBit) <> 0 " +
+                   "     WHEN hc.id IS NOT NULL THEN (hc.weekend_days & :dayBit) = 0 " +
+                   "     ELSE :unscheduledWorkingDay END " +
+                   "AND NOT EXISTS (SELECT 1 FROM attendance a WHERE a.employee_id = e.id AND a.date = :date) " +
+                   "ON CONFLICT (employee_id, date) DO NOTHING",
+           nativeQuery = true)
+    int insertMissingAttendance(@Param("date") LocalDate date,
+                                @Param("fromId") long fromId,
+                                @Param("toId") long toId,
+                                @Param("dayBit") int dayBit,
+                                @Param("unscheduledWorkingDay") boolean unscheduledWorkingDay);
+    
+    /**
+     * Keyset scan over rows written after the given (updatedAt, id) position and before
+     * {@code before}, oldest first.
+     */
+    @Query("SELECT a.id AS id, a.employee.id AS employeeId, a.date AS date, a.checkIn AS checkIn, " +
+           "a.checkOut AS checkOut, a.totalHours AS totalHours, a.checkInIp AS checkInIp, a.updatedAt AS updatedAt " +
+           "FROM Attendance a " +
+           "WHERE (a.updatedAt > :afterUpdatedAt OR (a.updatedAt = :afterUpdatedAt AND a.id > :afterId)) " +
+           "AND a.updatedAt < :before " +
+           "ORDER BY a.updatedAt, a.id")
+    List<AttendanceScanRow> findChangedSince(@Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                             @Param("afterId") Long afterId,
+                                             @Param("before") LocalDateTime before,
+                                             Pageable pageable);
+    
+    @Query("SELECT a.id AS id, a.employee.id AS employeeId, a.date AS date, a.checkIn AS checkIn, " +
+           "a.checkOut AS checkOut, a.totalHours AS totalHours, a.checkInIp AS checkInIp, a.updatedAt AS updatedAt " +
+           "FROM Attendance a " +
+           "WHERE a.date = :date AND a.checkIn IS NOT NULL " +
+           "ORDER BY a.checkIn")
+    List<AttendanceScanRow> findCheckInsOnDate(@Param("date") LocalDate date);
+    
+    interface AttendanceScanRow {
+        Long getId();
+        Long getEmployeeId();
+        LocalDate getDate();
+        LocalDateTime getCheckIn();
+        LocalDateTime getCheckOut();
+        Double getTotalHours();
+        String getCheckInIp();
+        LocalDateTime getUpdatedAt();
+    }
+    
+    interface AttendanceCell {
+        Long getEmployeeId();
+        LocalDate getDate();
+        AttendanceStatus getStatus();
+    }
+    
+    interface StatusCount {
+        AttendanceStatus getStatus();
+        Long getCount();
+        Double getTotalHours();
+        Double getOvertimeHours();
+    }
+    
+    interface EmployeeStatusCount extends StatusCount {
+        Long getEmployeeId();
+    }
 }
@@ -19,4 +19,12 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     Optional<Department> findByIdWithManager(Long id);
     
     boolean existsByName(String name);
+    
+    @Query("SELECT d.id AS departmentId, d.manager.id AS headId FROM Department d WHERE d.isActive = true")
+    List<DepartmentHead> findAllDepartmentHeads();
+    
+    interface DepartmentHead {
+        Long getDepartmentId();
+        Long getHeadId();
+    }
 }
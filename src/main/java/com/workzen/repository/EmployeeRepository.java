@@ -1,11 +1,13 @@
 package com.workzen.repository;
 
+import com.workzen.dto.employee.EmployeeSearchResult;
 import com.workzen.entity.Department;
 import com.workzen.entity.Employee;
 import com.workzen.enums.EmployeeStatus;
 import com.workzen.enums.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,10 +23,6 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     
     Optional<Employee> findByEmployeeCode(String employeeCode);
     
-    List<Employee> findByDepartment(Department department);
-    
-    List<Employee> findByRole(Role role);
-    
     List<Employee> findByStatus(EmployeeStatus status);
     
     List<Employee> findByManager(Employee manager);
@@ -33,15 +31,74 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     
     List<Employee> findByIsActiveTrue();
     
+    // Employee list pages: department, designation and the manager with their designation are
+    // joined into the page query, so mapping a page to responses doesn't load them row by row
+    @EntityGraph(attributePaths = {"department", "designation", "manager", "manager.designation"})
+    @Query("SELECT e FROM Employee e")
+    Page<Employee> findPageWithDetails(Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"department", "designation", "manager", "manager.designation"})
+    @Query("SELECT e FROM Employee e WHERE e.department.id = :departmentId")
+    Page<Employee> findPageWithDetailsByDepartmentId(@Param("departmentId") Long departmentId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"department", "designation", "manager", "manager.designation"})
+    @Query("SELECT e FROM Employee e WHERE e.role = :role")
+    Page<Employee> findPageWithDetailsByRole(@Param("role") Role role, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"department", "designation", "manager", "manager.designation"})
+    @Query("SELECT e FROM Employee e WHERE e.status = :status")
+    Page<Employee> findPageWithDetailsByStatus(@Param("status") EmployeeStatus status, Pageable pageable);
+    
     @Query("SELECT e FROM Employee e WHERE e.manager = :manager AND e.status = :status")
     List<Employee> findSubordinates(@Param("manager") Employee manager, @Param("status") EmployeeStatus status);
     
-    @Query("SELECT e FROM Employee e WHERE " +
-           "(LOWER(e.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(e.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(e.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(e.employeeCode) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Employee> searchEmployees(@Param("searchTerm") String searchTerm, Pageable pageable);
+    /**
+     * Ranked search over name, email and code through the trigram index on employees.search_text
+     * (see schema.sql). Matches are substrings ({@code contains} is the LIKE pattern for the
+     * term) or fuzzy word matches ({@code <%}, pg_trgm word similarity). An exact code ranks
+     * first, then a match at the start of a word, then any substring, with similarity breaking ties.
+     * {@code term} must be lower case. Needs pg_trgm; see {@link #searchEmployeesByLike} for the fallback.
+     */
+    @Query(value = "SELECT e.id AS \"id\", e.employee_code AS \"employeeId\", e.first_name AS \"firstName\", " +
+                   "e.last_name AS \"lastName\", e.first_name || ' ' || e.last_name AS \"fullName\", " +
+                   "e.email AS \"email\", e.status AS \"status\", " +
+                   "d.name AS \"department\", g.name AS \"designation\", " +
+                   "CASE WHEN lower(e.employee_code) = :term THEN 3 " +
+                   "     WHEN e.search_text LIKE :wordPrefix OR e.search_text LIKE :prefix THEN 2 " +
+                   "     WHEN e.search_text LIKE :contains THEN 1 ELSE 0 END " +
+                   "+ word_similarity(:term, e.search_text) AS \"score\" " +
+                   "FROM employees e " +
+                   "LEFT JOIN departments d ON d.id = e.department_id " +
+                   "LEFT JOIN designations g ON g.id = e.designation_id " +
+                   "WHERE e.search_text LIKE :contains OR :term <% e.search_text " +
+                   "ORDER BY \"score\" DESC, e.first_name, e.last_name, e.id",
+           countQuery = "SELECT COUNT(*) FROM employees e " +
+                        "WHERE e.search_text LIKE :contains OR :term <% e.search_text",
+           nativeQuery = true)
+    Page<EmployeeSearchResult> searchEmployees(@Param("term") String term,
+                                    @Param("prefix") String prefix,
+                                    @Param("wordPrefix") String wordPrefix,
+                                    @Param("contains") String contains,
+                                    Pageable pageable);
+    
+    // Unranked substring search used when the trigram search objects are missing; {@code contains} is lower case
+    @Query(value = "SELECT e.id AS id, e.employeeCode AS employeeId, e.firstName AS firstName, " +
+                   "e.lastName AS lastName, CONCAT(e.firstName, ' ', e.lastName) AS fullName, e.email AS email, " +
+                   "e.status AS status, d.name AS department, g.name AS designation, 0.0 AS score " +
+                   "FROM Employee e LEFT JOIN e.department d LEFT JOIN e.designation g " +
+                   "WHERE LOWER(e.firstName) LIKE :contains OR LOWER(e.lastName) LIKE :contains " +
+                   "OR LOWER(e.email) LIKE :contains OR LOWER(e.employeeCode) LIKE :contains " +
+                   "ORDER BY e.firstName, e.lastName, e.id",
+           countQuery = "SELECT COUNT(e) FROM Employee e " +
+                        "WHERE LOWER(e.firstName) LIKE :contains OR LOWER(e.lastName) LIKE :contains " +
+                        "OR LOWER(e.email) LIKE :contains OR LOWER(e.employeeCode) LIKE :contains")
+    Page<EmployeeSearchResult> searchEmployeesByLike(@Param("contains") String contains, Pageable pageable);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') " +
+                   "AND EXISTS (SELECT 1 FROM information_schema.columns " +
+                   "WHERE table_name = 'employees' AND column_name = 'search_text')",
+           nativeQuery = true)
+    boolean isTrigramSearchAvailable();
     
     @Query("SELECT COUNT(e) FROM Employee e WHERE e.status = :status")
     long countByStatus(@Param("status") EmployeeStatus status);
@@ -56,5 +113,47 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     boolean existsByPhone(String phone);
     
     long countByEmployeeCodeStartingWith(String prefix);
+    
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM Employee e")
+    long findMaxId();
+    
+    @Query("SELECT e.id AS employeeId, e.manager.id AS managerId, e.department.id AS departmentId, " +
+           "e.isActive AS active, e.status AS status FROM Employee e")
+    List<ReportingLine> findAllReportingLines();
+    
+    @Query("SELECT e.id AS employeeId, e.manager.id AS managerId, e.department.id AS departmentId, " +
+           "e.isActive AS active, e.status AS status FROM Employee e WHERE e.id = :employeeId")
+    Optional<ReportingLine> findReportingLine(@Param("employeeId") Long employeeId);
+    
+    @Query("SELECT e.id AS employeeId, e.employeeCode AS employeeCode, e.firstName AS firstName, " +
+           "e.lastName AS lastName, d.name AS departmentName, g.name AS designationName, " +
+           "e.isActive AS active, e.status AS status " +
+           "FROM Employee e LEFT JOIN e.department d LEFT JOIN e.designation g " +
+           "ORDER BY e.firstName, e.lastName, e.id")
+    List<DirectoryRow> findAllDirectoryRows();
+    
+    @Query("SELECT e.id AS employeeId, e.employeeCode AS employeeCode, e.firstName AS firstName, " +
+           "e.lastName AS lastName, d.name AS departmentName, g.name AS designationName, " +
+           "e.isActive AS active, e.status AS status " +
+           "FROM Employee e LEFT JOIN e.department d LEFT JOIN e.designation g WHERE e.id = :employeeId")
+    Optional<DirectoryRow> findDirectoryRow(@Param("employeeId") Long employeeId);
+    
+    interface DirectoryRow {
+        Long getEmployeeId();
+        String getEmployeeCode();
+        String getFirstName();
+        String getLastName();
+        String getDepartmentName();
+        String getDesignationName();
+        Boolean getActive();
+        EmployeeStatus getStatus();
+    }
+    
+    interface ReportingLine {
+        Long getEmployeeId();
+        Long getManagerId();
+        Long getDepartmentId();
+        Boolean getActive();
+        EmployeeStatus getStatus();
+    }
 }
-
@@ -0,0 +1,30 @@
+package com.workzen.repository;
+
+import com.workzen.entity.HolidayCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HolidayCalendarRepository extends JpaRepository<HolidayCalendar, Long> {
+    
+    Optional<HolidayCalendar> findFirstByIsDefaultTrue();
+    
+    boolean existsByName(String name);
+    
+    @Query("SELECT e.id AS employeeId, c.id AS calendarId FROM Employee e JOIN e.holidayCalendar c")
+    List<EmployeeCalendar> findAllEmployeeCalendars();
+    
+    @Query("SELECT e.id AS employeeId, c.id AS calendarId FROM Employee e LEFT JOIN e.holidayCalendar c " +
+           "WHERE e.id = :employeeId")
+    Optional<EmployeeCalendar> findEmployeeCalendar(@Param("employeeId") Long employeeId);
+    
+    interface EmployeeCalendar {
+        Long getEmployeeId();
+        Long getCalendarId();
+    }
+}
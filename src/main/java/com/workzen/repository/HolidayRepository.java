@@ -0,0 +1,24 @@
+package com.workzen.repository;
+
+import com.workzen.entity.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+    
+    List<Holiday> findByCalendarIdAndDateBetweenOrderByDate(Long calendarId, LocalDate startDate, LocalDate endDate);
+    
+    boolean existsByCalendarIdAndDate(Long calendarId, LocalDate date);
+    
+    @Query("SELECT h.date FROM Holiday h WHERE h.calendar.id = :calendarId " +
+           "AND h.date >= :startDate AND h.date <= :endDate")
+    List<LocalDate> findDatesByCalendarIdAndDateBetween(@Param("calendarId") Long calendarId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+}
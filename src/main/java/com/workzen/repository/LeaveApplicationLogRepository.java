@@ -1,8 +1,13 @@
 package com.workzen.repository;
 
+import com.workzen.dto.LeaveApplicationLogDTO;
 import com.workzen.entity.LeaveApplication;
 import com.workzen.entity.LeaveApplicationLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +20,14 @@ public interface LeaveApplicationLogRepository extends JpaRepository<LeaveApplic
     List<LeaveApplicationLog> findByLeaveApplicationIdOrderByChangedAtDesc(Long leaveApplicationId);
     
     List<LeaveApplicationLog> findByActionTypeOrderByChangedAtDesc(String actionType);
+    
+    @Query(value = "SELECT new com.workzen.dto.LeaveApplicationLogDTO(" +
+                   "l.id, l.previousStatus, l.newStatus, l.actionType, l.remarks, l.changedAt, " +
+                   "c.id, c.firstName, c.lastName, c.email) " +
+                   "FROM LeaveApplicationLog l LEFT JOIN l.changedBy c " +
+                   "WHERE l.leaveApplication.id = :leaveApplicationId " +
+                   "ORDER BY l.changedAt DESC, l.id DESC",
+           countQuery = "SELECT COUNT(l) FROM LeaveApplicationLog l WHERE l.leaveApplication.id = :leaveApplicationId")
+    Page<LeaveApplicationLogDTO> findDtosByLeaveApplicationId(@Param("leaveApplicationId") Long leaveApplicationId,
+                                                              Pageable pageable);
 }
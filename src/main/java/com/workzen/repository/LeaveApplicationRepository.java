@@ -1,22 +1,49 @@
 package com.workzen.repository;
 
+import com.workzen.dto.LeaveApplicationSummaryDTO;
 import com.workzen.entity.LeaveApplication;
 import com.workzen.entity.Employee;
 import com.workzen.entity.LeaveType;
 import com.workzen.enums.LeaveStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface LeaveApplicationRepository extends JpaRepository<LeaveApplication, Long> {
     
+    String SUMMARY_DTO_SELECT = "SELECT new com.workzen.dto.LeaveApplicationSummaryDTO(" +
+            "la.id, la.startDate, la.endDate, la.durationMinutes, la.isHalfDay, la.status, la.reason, la.createdAt, " +
+            "lt.id, lt.name, e.id, CONCAT(e.firstName, ' ', e.lastName), e.employeeCode, d.name) " +
+            "FROM LeaveApplication la JOIN la.leaveType lt JOIN la.employee e LEFT JOIN e.department d ";
+    
+    // Seek predicate for newest-first (createdAt, id) keyset pages
+    String BEFORE_CURSOR = "AND (la.createdAt < :createdAt OR (la.createdAt = :createdAt AND la.id < :id)) ";
+    
+    String NEWEST_FIRST = "ORDER BY la.createdAt DESC, la.id DESC";
+    
+    // Optional HR list filters; a null parameter disables its condition. The date range matches overlapping leaves
+    String LIST_FILTERS = "WHERE (:status IS NULL OR la.status = :status) " +
+            "AND (:departmentId IS NULL OR d.id = :departmentId) " +
+            "AND (:leaveTypeId IS NULL OR lt.id = :leaveTypeId) " +
+            "AND (:fromDate IS NULL OR la.endDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR la.startDate <= :toDate) ";
+    
+    // The application's current approval step belongs to :approverId
+    String AWAITING_APPROVER = "AND EXISTS (SELECT 1 FROM LeaveApprovalStep s WHERE s.leaveApplication = la " +
+            "AND s.status = com.workzen.enums.ApprovalStepStatus.PENDING AND s.approver.id = :approverId) ";
+    
     List<LeaveApplication> findByEmployeeOrderByCreatedAtDesc(Employee employee);
     
     Page<LeaveApplication> findByEmployeeOrderByCreatedAtDesc(Employee employee, Pageable pageable);
@@ -25,30 +52,131 @@ public interface LeaveApplicationRepository extends JpaRepository<LeaveApplicati
     
     List<LeaveApplication> findByEmployeeAndStatus(Employee employee, LeaveStatus status);
     
-    @Query("SELECT la FROM LeaveApplication la WHERE la.employee.manager = :manager AND la.status = 'PENDING'")
-    List<LeaveApplication> findPendingApplicationsByManager(@Param("manager") Employee manager);
+    @Query("SELECT la FROM LeaveApplication la WHERE la.status = 'PENDING' " + AWAITING_APPROVER +
+           "ORDER BY la.createdAt DESC")
+    List<LeaveApplication> findPendingApplicationsByApprover(@Param("approverId") Long approverId);
     
-    @Query("SELECT la FROM LeaveApplication la " +
-           "WHERE la.employee = :employee " +
-           "AND la.status = 'APPROVED' " +
-           "AND ((la.startDate BETWEEN :startDate AND :endDate) " +
-           "OR (la.endDate BETWEEN :startDate AND :endDate))")
-    List<LeaveApplication> findOverlappingLeaves(@Param("employee") Employee employee, 
-                                                   @Param("startDate") LocalDate startDate, 
-                                                   @Param("endDate") LocalDate endDate);
-    
-    @Query("SELECT SUM(la.numberOfDays) FROM LeaveApplication la " +
+    @Query(value = SUMMARY_DTO_SELECT + LIST_FILTERS + NEWEST_FIRST,
+           countQuery = "SELECT COUNT(la) FROM LeaveApplication la JOIN la.leaveType lt JOIN la.employee e " +
+                        "LEFT JOIN e.department d " + LIST_FILTERS)
+    Page<LeaveApplicationSummaryDTO> findSummaries(@Param("status") LeaveStatus status,
+                                                   @Param("departmentId") Long departmentId,
+                                                   @Param("leaveTypeId") Long leaveTypeId,
+                                                   @Param("fromDate") LocalDate fromDate,
+                                                   @Param("toDate") LocalDate toDate,
+                                                   Pageable pageable);
+    
+    // Keyset inbox pages; pass PageRequest.of(0, size) to limit, no count query is run
+    @Query(SUMMARY_DTO_SELECT + "WHERE la.status = :status " + NEWEST_FIRST)
+    List<LeaveApplicationSummaryDTO> findSummariesByStatus(@Param("status") LeaveStatus status, Pageable pageable);
+    
+    @Query(SUMMARY_DTO_SELECT + "WHERE la.status = :status " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<LeaveApplicationSummaryDTO> findSummariesByStatusBefore(@Param("status") LeaveStatus status,
+                                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                                 @Param("id") Long id,
+                                                                 Pageable pageable);
+    
+    @Query(SUMMARY_DTO_SELECT + "WHERE la.status = :status " + AWAITING_APPROVER + NEWEST_FIRST)
+    List<LeaveApplicationSummaryDTO> findSummariesAwaitingApprover(@Param("status") LeaveStatus status,
+                                                                   @Param("approverId") Long approverId,
+                                                                   Pageable pageable);
+    
+    @Query(SUMMARY_DTO_SELECT + "WHERE la.status = :status " + AWAITING_APPROVER + BEFORE_CURSOR + NEWEST_FIRST)
+    List<LeaveApplicationSummaryDTO> findSummariesAwaitingApproverBefore(@Param("status") LeaveStatus status,
+                                                                         @Param("approverId") Long approverId,
+                                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                                         @Param("id") Long id,
+                                                                         Pageable pageable);
+    
+    long countByStatus(LeaveStatus status);
+    
+    @Query("SELECT COUNT(la) FROM LeaveApplication la WHERE la.status = :status " + AWAITING_APPROVER)
+    long countAwaitingApprover(@Param("status") LeaveStatus status, @Param("approverId") Long approverId);
+    
+    // Closed ranges overlap when each starts on or before the other ends; && on daterange uses
+    // the GiST index behind the leave_applications_no_full_day_overlap constraint (see schema.sql)
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM leave_applications la " +
+           "WHERE la.employee_id = :employeeId " +
+           "AND la.status IN ('PENDING', 'APPROVED') " +
+           "AND daterange(la.start_date, la.end_date, '[]') && daterange(:startDate, :endDate, '[]'))",
+           nativeQuery = true)
+    boolean existsOverlappingLeave(@Param("employeeId") Long employeeId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Minutes of pending or approved leave already booked on one day: a partial-day leave (a
+     * single date, under 480 minutes) counts its own minutes, any other leave covering the day
+     * counts as the whole day.
+     */
+    @Query(value = "SELECT COALESCE(SUM(CASE WHEN la.start_date = la.end_date AND la.duration_minutes < 480 " +
+           "THEN la.duration_minutes ELSE 480 END), 0) FROM leave_applications la " +
+           "WHERE la.employee_id = :employeeId " +
+           "AND la.status IN ('PENDING', 'APPROVED') " +
+           "AND daterange(la.start_date, la.end_date, '[]') @> CAST(:date AS date)",
+           nativeQuery = true)
+    long sumBookedMinutesOn(@Param("employeeId") Long employeeId, @Param("date") LocalDate date);
+    
+    // Serializes one employee's submissions, which the exclusion constraint can't do for partial days
+    @Query(value = "SELECT id FROM employees WHERE id = :employeeId FOR UPDATE", nativeQuery = true)
+    Long lockEmployeeForApplication(@Param("employeeId") Long employeeId);
+    
+    // schema.sql can't create the constraint while existing full-day applications overlap
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'leave_applications_no_full_day_overlap')",
+           nativeQuery = true)
+    boolean isOverlapConstraintPresent();
+    
+    @Query("SELECT CASE WHEN COUNT(la) > 0 THEN true ELSE false END FROM LeaveApplication la " +
+           "WHERE la.employee.id = :employeeId " +
+           "AND la.status = :status " +
+           "AND la.startDate <= :date AND la.endDate >= :date")
+    boolean existsByEmployeeIdAndStatusOnDate(@Param("employeeId") Long employeeId,
+                                              @Param("status") LeaveStatus status,
+                                              @Param("date") LocalDate date);
+    
+    @Query("SELECT DISTINCT la.employee.id FROM LeaveApplication la " +
+           "WHERE la.status = :status " +
+           "AND la.startDate <= :date AND la.endDate >= :date")
+    Set<Long> findEmployeeIdsByStatusOnDate(@Param("status") LeaveStatus status,
+                                            @Param("date") LocalDate date);
+    
+    @Query("SELECT la.employee.id AS employeeId, la.startDate AS startDate, la.endDate AS endDate, la.status AS status " +
+           "FROM LeaveApplication la " +
+           "WHERE la.employee.id IN :employeeIds " +
+           "AND la.status IN :statuses " +
+           "AND la.startDate <= :endDate AND la.endDate >= :startDate")
+    List<LeaveInterval> findIntervalsByEmployeeIdsOverlapping(@Param("employeeIds") Collection<Long> employeeIds,
+                                                              @Param("statuses") Collection<LeaveStatus> statuses,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT SUM(la.durationMinutes) FROM LeaveApplication la " +
            "WHERE la.employee = :employee " +
            "AND la.leaveType = :leaveType " +
            "AND YEAR(la.startDate) = :year " +
            "AND la.status = 'APPROVED'")
-    Double getTotalApprovedLeavesByEmployeeAndTypeAndYear(@Param("employee") Employee employee, 
+    Long getTotalApprovedLeaveMinutesByEmployeeAndTypeAndYear(@Param("employee") Employee employee, 
                                                             @Param("leaveType") LeaveType leaveType, 
                                                             @Param("year") int year);
     
+    // Locks the rows so a bulk decision can't race single approvals or cancellations
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT la FROM LeaveApplication la " +
+           "JOIN FETCH la.employee " +
+           "JOIN FETCH la.leaveType " +
+           "WHERE la.id IN :ids")
+    List<LeaveApplication> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT la FROM LeaveApplication la " +
            "LEFT JOIN FETCH la.employee " +
            "LEFT JOIN FETCH la.leaveType " +
            "WHERE la.id = :id")
     LeaveApplication findByIdWithDetails(@Param("id") Long id);
+    
+    interface LeaveInterval {
+        Long getEmployeeId();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+        LeaveStatus getStatus();
+    }
 }
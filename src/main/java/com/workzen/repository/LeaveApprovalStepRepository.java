@@ -0,0 +1,27 @@
+package com.workzen.repository;
+
+import com.workzen.dto.LeaveApprovalStepDTO;
+import com.workzen.entity.LeaveApprovalStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaveApprovalStepRepository extends JpaRepository<LeaveApprovalStep, Long> {
+    
+    List<LeaveApprovalStep> findByLeaveApplicationIdOrderByStepOrderAsc(Long leaveApplicationId);
+    
+    boolean existsByLeaveApplicationIdAndApproverId(Long leaveApplicationId, Long approverId);
+    
+    @Query("SELECT new com.workzen.dto.LeaveApprovalStepDTO(" +
+           "s.id, s.stepOrder, s.level, s.status, " +
+           "a.id, CONCAT(a.firstName, ' ', a.lastName), " +
+           "d.id, CONCAT(d.firstName, ' ', d.lastName), s.decidedAt, s.remarks) " +
+           "FROM LeaveApprovalStep s LEFT JOIN s.approver a LEFT JOIN s.decidedBy d " +
+           "WHERE s.leaveApplication.id = :leaveApplicationId " +
+           "ORDER BY s.stepOrder")
+    List<LeaveApprovalStepDTO> findDtosByLeaveApplicationId(@Param("leaveApplicationId") Long leaveApplicationId);
+}
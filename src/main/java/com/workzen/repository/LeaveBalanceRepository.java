@@ -4,16 +4,24 @@ import com.workzen.entity.Employee;
 import com.workzen.entity.LeaveBalance;
 import com.workzen.entity.LeaveType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
     
+    // The year whose balance is still open for (:employeeId, :leaveTypeId, :year): the rollover closes a year into the next
+    String OPEN_BALANCE_YEAR =
+            "SELECT CASE WHEN b.rolled_over THEN b.year + 1 ELSE b.year END AS year FROM leave_balances b " +
+            "WHERE b.employee_id = :employeeId AND b.leave_type_id = :leaveTypeId AND b.year = :year";
+    
     Optional<LeaveBalance> findByEmployeeAndLeaveTypeAndYear(Employee employee, LeaveType leaveType, Integer year);
     
     List<LeaveBalance> findByEmployeeAndYear(Employee employee, Integer year);
@@ -25,5 +33,128 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
            "WHERE lb.employee = :employee AND lb.year = :year")
     List<LeaveBalance> findByEmployeeAndYearWithLeaveType(@Param("employee") Employee employee, @Param("year") Integer year);
     
+    @Query("SELECT lb FROM LeaveBalance lb WHERE lb.employee.id IN :employeeIds AND lb.year IN :years")
+    List<LeaveBalance> findByEmployeeIdInAndYearIn(@Param("employeeIds") Collection<Long> employeeIds,
+                                                   @Param("years") Collection<Integer> years);
+    
     boolean existsByEmployeeAndLeaveTypeAndYear(Employee employee, LeaveType leaveType, Integer year);
+    
+    /**
+     * Deducts {@code minutes} only if enough balance is left and writes the DEDUCTION ledger entry,
+     * in one statement. Returns 0 when the balance is missing or insufficient; concurrent
+     * approvals serialize on the row lock, so the balance can never go negative.
+     * Once the year has been rolled over its balance is closed, and the next year's balance is
+     * used instead.
+     */
+    @Modifying
+    @Query(value = "WITH target AS (" + OPEN_BALANCE_YEAR + "), " +
+                   "updated AS (" +
+                   "  UPDATE leave_balances SET used_minutes = used_minutes + :minutes, " +
+                   "  balance_minutes = balance_minutes - :minutes, " +
+                   "  updated_at = now(), version = COALESCE(version, 0) + 1 " +
+                   "  WHERE employee_id = :employeeId AND leave_type_id = :leaveTypeId " +
+                   "  AND year = (SELECT year FROM target) AND balance_minutes >= :minutes " +
+                   "  RETURNING id, balance_minutes) " +
+                   "INSERT INTO leave_ledger_entries (leave_balance_id, entry_type, minutes, balance_after_minutes, " +
+                   "leave_application_id, remarks, created_at, created_by) " +
+                   "SELECT id, 'DEDUCTION', -:minutes, balance_minutes, :leaveApplicationId, :remarks, now(), :actor " +
+                   "FROM updated",
+           nativeQuery = true)
+    int deductIfSufficient(@Param("employeeId") Long employeeId,
+                           @Param("leaveTypeId") Long leaveTypeId,
+                           @Param("year") Integer year,
+                           @Param("minutes") long minutes,
+                           @Param("leaveApplicationId") Long leaveApplicationId,
+                           @Param("remarks") String remarks,
+                           @Param("actor") String actor);
+    
+    /**
+     * Gives {@code minutes} back to the balance and writes the RESTORATION ledger entry in one statement.
+     * Like deductions, a rolled-over year gives them back to the next year's balance.
+     */
+    @Modifying
+    @Query(value = "WITH target AS (" + OPEN_BALANCE_YEAR + "), " +
+                   "updated AS (" +
+                   "  UPDATE leave_balances SET used_minutes = used_minutes - :minutes, " +
+                   "  balance_minutes = balance_minutes + :minutes, " +
+                   "  updated_at = now(), version = COALESCE(version, 0) + 1 " +
+                   "  WHERE employee_id = :employeeId AND leave_type_id = :leaveTypeId " +
+                   "  AND year = (SELECT year FROM target) " +
+                   "  RETURNING id, balance_minutes) " +
+                   "INSERT INTO leave_ledger_entries (leave_balance_id, entry_type, minutes, balance_after_minutes, " +
+                   "leave_application_id, remarks, created_at, created_by) " +
+                   "SELECT id, 'RESTORATION', :minutes, balance_minutes, :leaveApplicationId, :remarks, now(), :actor " +
+                   "FROM updated",
+           nativeQuery = true)
+    int restore(@Param("employeeId") Long employeeId,
+                @Param("leaveTypeId") Long leaveTypeId,
+                @Param("year") Integer year,
+                @Param("minutes") long minutes,
+                @Param("leaveApplicationId") Long leaveApplicationId,
+                @Param("remarks") String remarks,
+                @Param("actor") String actor);
+    
+    /**
+     * Sets a new allocation (keeping what was already used) and records the difference as an
+     * ADJUSTMENT ledger entry. Clears the persistence context so callers re-read the new values.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "WITH previous AS (" +
+                   "  SELECT id, allocated_minutes FROM leave_balances WHERE id = :id FOR UPDATE), " +
+                   "updated AS (" +
+                   "  UPDATE leave_balances lb SET allocated_minutes = :allocatedMinutes, " +
+                   "  balance_minutes = :allocatedMinutes - lb.used_minutes, updated_at = now(), " +
+                   "  version = COALESCE(lb.version, 0) + 1 " +
+                   "  FROM previous p WHERE lb.id = p.id " +
+                   "  RETURNING lb.id, lb.balance_minutes, :allocatedMinutes - p.allocated_minutes AS delta) " +
+                   "INSERT INTO leave_ledger_entries (leave_balance_id, entry_type, minutes, balance_after_minutes, " +
+                   "remarks, created_at, created_by) " +
+                   "SELECT id, 'ADJUSTMENT', delta, balance_minutes, 'Allocation changed', now(), :actor FROM updated",
+           nativeQuery = true)
+    int reallocate(@Param("id") Long id,
+                   @Param("allocatedMinutes") long allocatedMinutes,
+                   @Param("actor") String actor);
+    
+    /**
+     * Creates every missing balance for the year for active employees in the id range, one row
+     * per active leave type, carrying forward unused leave from the previous year where the leave
+     * type allows it. ALLOCATION and CARRY_FORWARD ledger entries are written by the same
+     * statement. Existing balances are left untouched, so re-running is safe.
+     * Leave type caps are in days and converted at 480 minutes per day (LeaveUnits.MINUTES_PER_DAY).
+     * Returns the number of ledger entries written.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "WITH inserted AS (" +
+                   "  INSERT INTO leave_balances (employee_id, leave_type_id, year, allocated_minutes, used_minutes, " +
+                   "  balance_minutes, carried_forward_minutes, created_at, updated_at, created_by, version) " +
+                   "  SELECT e.id, lt.id, :year, a.minutes + cf.minutes, 0, a.minutes + cf.minutes, cf.minutes, " +
+                   "  now(), now(), 'system', 0 " +
+                   "  FROM employees e " +
+                   "  CROSS JOIN leave_types lt " +
+                   "  LEFT JOIN leave_balances prev ON prev.employee_id = e.id AND prev.leave_type_id = lt.id " +
+                   "       AND prev.year = :year - 1 " +
+                   "  CROSS JOIN LATERAL (SELECT CAST(round(COALESCE(lt.max_days_per_year, :defaultAllocation) * 480) " +
+                   "       AS bigint) AS minutes) a " +
+                   "  CROSS JOIN LATERAL (SELECT CASE WHEN lt.is_carry_forward AND prev.balance_minutes > 0 " +
+                   "       THEN LEAST(prev.balance_minutes, " +
+                   "            COALESCE(CAST(lt.max_carry_forward_days AS bigint) * 480, prev.balance_minutes)) " +
+                   "       ELSE 0 END AS minutes) cf " +
+                   "  WHERE lt.is_active AND e.status IN ('ACTIVE', 'PROBATION', 'ON_LEAVE') " +
+                   "  AND e.id > :fromId AND e.id <= :toId " +
+                   "  ON CONFLICT (employee_id, leave_type_id, year) DO NOTHING " +
+                   "  RETURNING id, allocated_minutes, carried_forward_minutes, balance_minutes) " +
+                   "INSERT INTO leave_ledger_entries (leave_balance_id, entry_type, minutes, balance_after_minutes, " +
+                   "remarks, created_at, created_by) " +
+                   "SELECT id, 'ALLOCATION', allocated_minutes - carried_forward_minutes, " +
+                   "allocated_minutes - carried_forward_minutes, 'Yearly allocation', now(), 'system' FROM inserted " +
+                   "UNION ALL " +
+                   "SELECT id, 'CARRY_FORWARD', carried_forward_minutes, balance_minutes, " +
+                   "'Carried forward from ' || (:year - 1), now(), 'system' FROM inserted " +
+                   "WHERE carried_forward_minutes > 0",
+           nativeQuery = true)
+    int allocateYear(@Param("year") int year,
+                     @Param("fromId") long fromId,
+                     @Param("toId") long toId,
+                     @Param("defaultAllocation") double defaultAllocation);
 }
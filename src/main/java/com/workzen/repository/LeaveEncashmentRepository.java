@@ -0,0 +1,15 @@
+package com.workzen.repository;
+
+import com.workzen.entity.LeaveEncashment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaveEncashmentRepository extends JpaRepository<LeaveEncashment, Long> {
+    
+    List<LeaveEncashment> findByEmployeeIdAndProcessedFalse(Long employeeId);
+    
+    List<LeaveEncashment> findByYear(Integer year);
+}
@@ -0,0 +1,13 @@
+package com.workzen.repository;
+
+import com.workzen.entity.LeaveLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaveLedgerEntryRepository extends JpaRepository<LeaveLedgerEntry, Long> {
+    
+    List<LeaveLedgerEntry> findByLeaveBalanceIdOrderByIdAsc(Long leaveBalanceId);
+}
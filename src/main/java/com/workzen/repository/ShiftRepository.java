@@ -0,0 +1,38 @@
+package com.workzen.repository;
+
+import com.workzen.entity.Shift;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ShiftRepository extends JpaRepository<Shift, Long> {
+    
+    List<Shift> findByIsActiveTrue();
+    
+    Optional<Shift> findFirstByIsDefaultTrueAndIsActiveTrue();
+    
+    boolean existsByName(String name);
+    
+    @Query("SELECT e.id AS employeeId, COALESCE(s.id, ds.id) AS shiftId FROM Employee e " +
+           "LEFT JOIN e.shift s " +
+           "LEFT JOIN e.department d " +
+           "LEFT JOIN d.shift ds")
+    List<EmployeeShift> findAllEmployeeShifts();
+    
+    @Query("SELECT e.id AS employeeId, COALESCE(s.id, ds.id) AS shiftId FROM Employee e " +
+           "LEFT JOIN e.shift s " +
+           "LEFT JOIN e.department d " +
+           "LEFT JOIN d.shift ds " +
+           "WHERE e.id = :employeeId")
+    Optional<EmployeeShift> findEmployeeShift(@Param("employeeId") Long employeeId);
+    
+    interface EmployeeShift {
+        Long getEmployeeId();
+        Long getShiftId();
+    }
+}
@@ -0,0 +1,281 @@
+package com.workzen.scheduler;
+
+import com.workzen.entity.JobWatermark;
+import com.workzen.enums.AttendanceAnomalyType;
+import com.workzen.repository.AttendanceAnomalyRepository;
+import com.workzen.repository.AttendanceRepository;
+import com.workzen.repository.AttendanceRepository.AttendanceScanRow;
+import com.workzen.repository.JobWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental scan of attendance writes for HR review. Each run reads only rows changed since
+ * the stored (updated_at, id) watermark, up to a commit lag behind now, and flags:
+ * - check-ins within a few seconds of another employee's check-in on the same day
+ * - impossible durations (check-out before check-in, or longer than anyone can work)
+ * - check-in times and worked hours far outside the employee's own running average
+ *
+ * Per-employee averages are kept in memory (Welford's algorithm), so they start over after a
+ * restart and only kick in once an employee has enough samples. Each batch's anomalies and
+ * watermark commit together, and the batch's changes to the averages are applied only after that
+ * commit, so a batch that fails is re-read later without being counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttendanceAnomalyJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceAnomalyJob.class);
+
+    private static final String JOB_NAME = "attendance-anomaly";
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceAnomalyRepository anomalyRepository;
+    private final JobWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<Long, EmployeeStats> statsByEmployee = new ConcurrentHashMap<>();
+
+    @Value("${attendance.anomalies.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.anomalies.commit-lag-seconds:120}")
+    private long commitLagSeconds;
+
+    @Value("${attendance.anomalies.initial-lookback-days:30}")
+    private int initialLookbackDays;
+
+    @Value("${attendance.anomalies.shared-check-in-seconds:5}")
+    private long sharedCheckInSeconds;
+
+    @Value("${attendance.anomalies.max-shift-hours:16}")
+    private double maxShiftHours;
+
+    @Value("${attendance.anomalies.z-score-threshold:3.0}")
+    private double zScoreThreshold;
+
+    @Value("${attendance.anomalies.min-samples:10}")
+    private int minSamples;
+
+    @Scheduled(fixedDelayString = "${attendance.anomalies.interval-ms:300000}")
+    public void runScheduled() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            logger.error("Attendance anomaly scan failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public AnomalyScanResult run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Attendance anomaly scan is already running");
+        }
+        try {
+            JobWatermark watermark = watermarkRepository.findById(JOB_NAME)
+                    .orElseGet(() -> new JobWatermark(JOB_NAME,
+                            LocalDate.now().minusDays(initialLookbackDays).atStartOfDay(), 0L, null));
+
+            // Fixed for the whole run so the last batch can't chase rows written while it scans
+            LocalDateTime before = LocalDateTime.now().minusSeconds(commitLagSeconds);
+            int scanned = 0;
+            int flagged = 0;
+            List<AttendanceScanRow> batch;
+            do {
+                batch = attendanceRepository.findChangedSince(watermark.getLastUpdatedAt(), watermark.getLastId(),
+                        before, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<AttendanceScanRow> rows = batch;
+                Map<Long, EmployeeStats> updatedStats = new HashMap<>();
+                Integer batchFlagged = transactionTemplate.execute(status -> {
+                    int count = processBatch(rows, updatedStats);
+                    AttendanceScanRow last = rows.get(rows.size() - 1);
+                    watermark.setLastUpdatedAt(last.getUpdatedAt());
+                    watermark.setLastId(last.getId());
+                    watermark.setUpdatedAt(LocalDateTime.now());
+                    watermarkRepository.save(watermark);
+                    return count;
+                });
+                statsByEmployee.putAll(updatedStats);
+                flagged += batchFlagged != null ? batchFlagged : 0;
+                scanned += batch.size();
+            } while (batch.size() == batchSize);
+
+            if (scanned > 0) {
+                logger.info("Attendance anomaly scan: {} rows scanned, {} anomalies flagged", scanned, flagged);
+            }
+            return new AnomalyScanResult(scanned, flagged, watermark.getLastUpdatedAt());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Flags the batch's rows. Running averages are read from and written to copies in
+     * {@code updatedStats}, which the caller publishes once the batch has committed.
+     */
+    private int processBatch(List<AttendanceScanRow> batch, Map<Long, EmployeeStats> updatedStats) {
+        int flagged = 0;
+
+        // One lookup per day touched by the batch, not per row
+        Map<LocalDate, List<AttendanceScanRow>> checkInsByDate = new HashMap<>();
+        for (LocalDate date : batch.stream()
+                .filter(row -> row.getCheckIn() != null)
+                .map(AttendanceScanRow::getDate)
+                .collect(Collectors.toSet())) {
+            checkInsByDate.put(date, attendanceRepository.findCheckInsOnDate(date));
+        }
+
+        for (AttendanceScanRow row : batch) {
+            if (row.getCheckIn() != null) {
+                flagged += checkSharedCheckIn(row, checkInsByDate.get(row.getDate()));
+            }
+            flagged += checkDuration(row, updatedStats);
+        }
+        return flagged;
+    }
+
+    private int checkSharedCheckIn(AttendanceScanRow row, List<AttendanceScanRow> sameDay) {
+        // sameDay is ordered by check-in, so start at the first entry inside the window
+        LocalDateTime from = row.getCheckIn().minusSeconds(sharedCheckInSeconds);
+        LocalDateTime to = row.getCheckIn().plusSeconds(sharedCheckInSeconds);
+        int index = firstAtOrAfter(sameDay, from);
+
+        int flagged = 0;
+        for (int i = index; i < sameDay.size() && !sameDay.get(i).getCheckIn().isAfter(to); i++) {
+            AttendanceScanRow other = sameDay.get(i);
+            if (other.getEmployeeId().equals(row.getEmployeeId())) {
+                continue;
+            }
+            long gap = Math.abs(Duration.between(row.getCheckIn(), other.getCheckIn()).toSeconds());
+            String details = String.format("Checked in %ds apart from employee %d (attendance %d)%s",
+                    gap, other.getEmployeeId(), other.getId(),
+                    row.getCheckInIp() != null && Objects.equals(row.getCheckInIp(), other.getCheckInIp())
+                            ? " from the same IP " + row.getCheckInIp() : "");
+            flagged += flag(row, AttendanceAnomalyType.SHARED_CHECK_IN_TIME, details);
+        }
+        return flagged;
+    }
+
+    private int checkDuration(AttendanceScanRow row, Map<Long, EmployeeStats> updatedStats) {
+        if (row.getCheckOut() == null) {
+            return 0;
+        }
+        if (row.getCheckIn() == null) {
+            return flag(row, AttendanceAnomalyType.IMPOSSIBLE_DURATION, "Check-out recorded without a check-in");
+        }
+        double hours = Duration.between(row.getCheckIn(), row.getCheckOut()).toMinutes() / 60.0;
+        if (hours < 0 || hours > maxShiftHours) {
+            return flag(row, AttendanceAnomalyType.IMPOSSIBLE_DURATION,
+                    String.format("Worked %.2f hours between %s and %s", hours, row.getCheckIn(), row.getCheckOut()));
+        }
+
+        // Only closed days feed the running averages, so a check-in and its later check-out count once
+        EmployeeStats stats = updatedStats.computeIfAbsent(row.getEmployeeId(), id -> {
+            EmployeeStats committed = statsByEmployee.get(id);
+            return committed != null ? committed.copy() : new EmployeeStats();
+        });
+        int flagged = 0;
+        double checkInMinute = row.getCheckIn().getHour() * 60 + row.getCheckIn().getMinute();
+        if (stats.checkInMinute.isOutlier(checkInMinute, minSamples, zScoreThreshold)) {
+            flagged += flag(row, AttendanceAnomalyType.UNUSUAL_CHECK_IN_TIME,
+                    String.format("Checked in at %s, usual time is around %s",
+                            row.getCheckIn().toLocalTime(), minuteOfDay(stats.checkInMinute.mean)));
+        }
+        if (stats.workedHours.isOutlier(hours, minSamples, zScoreThreshold)) {
+            flagged += flag(row, AttendanceAnomalyType.UNUSUAL_DURATION,
+                    String.format("Worked %.2f hours, usual is %.2f", hours, stats.workedHours.mean));
+        }
+        stats.checkInMinute.add(checkInMinute);
+        stats.workedHours.add(hours);
+        return flagged;
+    }
+
+    private int flag(AttendanceScanRow row, AttendanceAnomalyType type, String details) {
+        return anomalyRepository.insertIfAbsent(row.getId(), row.getEmployeeId(), row.getDate(), type.name(), details);
+    }
+
+    private static int firstAtOrAfter(List<AttendanceScanRow> rows, LocalDateTime time) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rows.get(mid).getCheckIn().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String minuteOfDay(double minute) {
+        int rounded = (int) Math.round(minute);
+        return String.format("%02d:%02d", rounded / 60, rounded % 60);
+    }
+
+    private static final class EmployeeStats {
+        private final RunningStats checkInMinute = new RunningStats();
+        private final RunningStats workedHours = new RunningStats();
+
+        EmployeeStats copy() {
+            EmployeeStats copy = new EmployeeStats();
+            copy.checkInMinute.copyFrom(checkInMinute);
+            copy.workedHours.copyFrom(workedHours);
+            return copy;
+        }
+    }
+
+    /**
+     * Welford's online mean/variance: constant memory and numerically stable.
+     */
+    private static final class RunningStats {
+        private long count;
+        private double mean;
+        private double m2;
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        void copyFrom(RunningStats other) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+        }
+
+        boolean isOutlier(double value, int minSamples, double threshold) {
+            if (count < minSamples) {
+                return false;
+            }
+            double stdDev = Math.sqrt(m2 / (count - 1));
+            // Perfectly regular employees would otherwise be flagged for any deviation at all
+            return stdDev > 0 && Math.abs(value - mean) / stdDev > threshold;
+        }
+    }
+
+    public record AnomalyScanResult(int rowsScanned, int anomaliesFlagged, LocalDateTime watermark) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.workzen.scheduler;
+
+import com.workzen.repository.AttendanceRepository;
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.service.AttendanceRollupService;
+import com.workzen.service.ShiftScheduleCache;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly attendance housekeeping:
+ * 1. closes check-ins that never checked out at their shift end (or the policy checkout time),
+ *    computing hours and overtime
+ * 2. inserts ABSENT / ON_LEAVE / HOLIDAY rows for everyone scheduled to work without a record, so
+ *    reports don't need anti-joins
+ *
+ * Both steps are set-based SQL run in small batches, each in its own transaction. The statements only
+ * touch rows that still need work, so re-running a day (or resuming after a crash) is safe.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttendanceEndOfDayJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceEndOfDayJob.class);
+
+    private final AttendanceRepository attendanceRepository;
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceRollupService attendanceRollupService;
+    private final ShiftScheduleCache shiftScheduleCache;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${attendance.end-of-day.checkout-time:18:00}")
+    private String policyCheckoutTime;
+
+    @Value("${attendance.end-of-day.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${attendance.end-of-day.catch-up-days:3}")
+    private int catchUpDays;
+
+    @Value("${attendance.end-of-day.skip-weekends:true}")
+    private boolean skipWeekends;
+
+    @Scheduled(cron = "${attendance.end-of-day.cron:0 30 0 * * *}")
+    public void runNightly() {
+        // Re-process the last few days as well so a missed or failed night catches up
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (LocalDate date = yesterday.minusDays(catchUpDays - 1L); !date.isAfter(yesterday); date = date.plusDays(1)) {
+            try {
+                runFor(date);
+            } catch (RuntimeException e) {
+                logger.error("End-of-day attendance job failed for {}: {}", date, e.getMessage(), e);
+            }
+        }
+    }
+
+    public EndOfDayResult runFor(LocalDate date) {
+        if (!date.isBefore(LocalDate.now())) {
+            throw new RuntimeException("End-of-day processing is only allowed for past dates");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("End-of-day attendance job is already running");
+        }
+        try {
+            int closed = closeOpenCheckIns(date);
+            int marked = markMissingAttendance(date);
+            if (closed > 0 || marked > 0) {
+                // Bulk statements bypass AttendanceService, so refresh the month from raw rows
+                attendanceRollupService.rebuildMonth(YearMonth.from(date));
+            }
+            logger.info("End-of-day attendance for {}: {} check-ins closed, {} absentee rows inserted",
+                    date, closed, marked);
+            return new EndOfDayResult(date, closed, marked);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Only used for employees with neither a shift nor a holiday calendar
+    private boolean isUnscheduledWorkingDay(LocalDate date) {
+        return !skipWeekends
+                || (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY);
+    }
+
+    private int closeOpenCheckIns(LocalDate date) {
+        // Same standard day the check-out path uses for employees without a shift
+        double defaultShiftHours = shiftScheduleCache.getDefaultSchedule().scheduledMinutes(date.getDayOfWeek()) / 60.0;
+        int total = 0;
+        int updated;
+        do {
+            updated = attendanceRepository.closeOpenCheckIns(date, policyCheckoutTime, defaultShiftHours, batchSize);
+            total += updated;
+        } while (updated > 0);
+        return total;
+    }
+
+    private int markMissingAttendance(LocalDate date) {
+        long maxId = employeeRepository.findMaxId();
+        int dayBit = 1 << (date.getDayOfWeek().getValue() - 1);
+        boolean unscheduledWorkingDay = isUnscheduledWorkingDay(date);
+        int total = 0;
+        for (long fromId = 0; fromId < maxId; fromId += batchSize) {
+            total += attendanceRepository.insertMissingAttendance(date, fromId, fromId + batchSize,
+                    dayBit, unscheduledWorkingDay);
+        }
+        return total;
+    }
+
+    public record EndOfDayResult(LocalDate date, int checkInsClosed, int absenteesMarked) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.workzen.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the monthly partitions of the attendance table once it has been converted
+ * with db/attendance_partitioning.sql:
+ * 1. creates partitions a few months ahead so inserts never land in the default partition
+ * 2. detaches partitions of closed years older than the retention window and moves them into
+ *    the attendance_archive schema (optionally onto a cheaper tablespace)
+ *
+ * Does nothing while attendance is still a plain table. Monthly totals for archived years stay
+ * available through attendance_monthly_rollup.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttendancePartitionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendancePartitionJob.class);
+
+    private static final String PARTITION_PREFIX = "attendance_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String ARCHIVE_SCHEMA = "attendance_archive";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${attendance.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${attendance.archive.retention-years:2}")
+    private int retentionYears;
+
+    @Value("${attendance.archive.tablespace:}")
+    private String archiveTablespace;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runSafely();
+    }
+
+    @Scheduled(cron = "${attendance.partitions.cron:0 0 2 1 * *}")
+    public void runMonthly() {
+        runSafely();
+    }
+
+    public PartitionMaintenanceResult run() {
+        if (!isPartitioned()) {
+            logger.debug("attendance is not partitioned, skipping partition maintenance");
+            return new PartitionMaintenanceResult(false, 0, 0);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Attendance partition maintenance is already running");
+        }
+        try {
+            int created = createUpcomingPartitions();
+            int archived = archiveClosedYears();
+            logger.info("Attendance partition maintenance: {} partitions created, {} archived", created, archived);
+            return new PartitionMaintenanceResult(true, created, archived);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * First month still kept in the hot table; everything before it has been (or will be) archived.
+     */
+    public YearMonth archiveCutoff() {
+        return YearMonth.of(LocalDate.now().getYear() - retentionYears, 1);
+    }
+
+    public boolean isArchived(YearMonth month) {
+        return isPartitioned() && month.isBefore(archiveCutoff());
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            logger.error("Attendance partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p " +
+                "JOIN pg_class c ON c.oid = p.partrelid " +
+                "WHERE c.relname = 'attendance' AND c.relnamespace = 'public'::regnamespace)",
+                Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private int createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                // IF NOT EXISTS keeps this idempotent; fails only if the default partition already holds rows for the month
+                int before = countPartitions();
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF attendance FOR VALUES FROM ('%s') TO ('%s')",
+                        partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+                created += countPartitions() - before;
+            } catch (DataAccessException e) {
+                logger.warn("Could not create attendance partition for {}: {}", month, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private int archiveClosedYears() {
+        YearMonth cutoff = archiveCutoff();
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+
+        int archived = 0;
+        for (String partition : listPartitions()) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            // Detach first so the parent stops scanning it, then move it out of the hot schema
+            jdbcTemplate.execute("ALTER TABLE attendance DETACH PARTITION " + partition);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            if (!archiveTablespace.isBlank()) {
+                jdbcTemplate.execute("ALTER TABLE " + ARCHIVE_SCHEMA + "." + partition
+                        + " SET TABLESPACE " + archiveTablespace);
+            }
+            archived++;
+            logger.info("Archived attendance partition {} to {}", partition, ARCHIVE_SCHEMA);
+        }
+        return archived;
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'attendance' AND p.relnamespace = 'public'::regnamespace " +
+                "ORDER BY c.relname",
+                String.class);
+    }
+
+    private int countPartitions() {
+        return listPartitions().size();
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    // Only partitions following the attendance_yyyy_MM convention are managed; the default one is left alone
+    private static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public record PartitionMaintenanceResult(boolean partitioned, int partitionsCreated, int partitionsArchived) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.workzen.scheduler;
+
+import com.workzen.entity.JobWatermark;
+import com.workzen.repository.AttendanceRepository;
+import com.workzen.repository.JobWatermarkRepository;
+import com.workzen.service.AttendanceRollupService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Fills attendance_monthly_rollup for attendance recorded before the rollup existed. Attendance
+ * stats read closed months only from the rollup, so without this those months would sum to zero.
+ * The first startup rebuilds every month from the earliest attendance date up to and including
+ * the current one (one transaction per month), then records completion in job_watermarks; later
+ * startups only look up that row.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttendanceRollupBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceRollupBackfillJob.class);
+
+    private static final String JOB_NAME = "attendance-rollup-backfill";
+
+    private final AttendanceRollupService attendanceRollupService;
+    private final AttendanceRepository attendanceRepository;
+    private final JobWatermarkRepository watermarkRepository;
+
+    @Value("${attendance.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            backfill();
+        } catch (RuntimeException e) {
+            logger.error("Attendance rollup backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public int backfill() {
+        if (watermarkRepository.existsById(JOB_NAME)) {
+            return 0;
+        }
+        int months = 0;
+        int buckets = 0;
+        LocalDate earliest = attendanceRepository.findEarliestDate();
+        if (earliest != null) {
+            // The current month too: its buckets may only hold writes made since the rollup went live
+            YearMonth current = YearMonth.now();
+            for (YearMonth month = YearMonth.from(earliest); !month.isAfter(current); month = month.plusMonths(1)) {
+                buckets += attendanceRollupService.rebuildMonth(month);
+                months++;
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        watermarkRepository.save(new JobWatermark(JOB_NAME, now, 0L, now));
+        logger.info("Backfilled attendance rollup for {} months ({} buckets)", months, buckets);
+        return buckets;
+    }
+}
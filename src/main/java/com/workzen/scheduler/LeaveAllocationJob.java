@@ -0,0 +1,83 @@
+package com.workzen.scheduler;
+
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.repository.LeaveBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Creates every employee's leave balances for a new year with one set-based statement per
+ * range of employee ids (each in its own transaction), instead of a lookup and an insert per
+ * employee and leave type. Runs on January 1st and, as a catch-up, at startup; existing
+ * balances are never touched, so repeated runs only fill gaps.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveAllocationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveAllocationJob.class);
+
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final EmployeeRepository employeeRepository;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${leave.allocation.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${leave.allocation.default-days:20}")
+    private double defaultAllocation;
+
+    @Value("${leave.allocation.run-on-startup:true}")
+    private boolean runOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (runOnStartup) {
+            runSafely();
+        }
+    }
+
+    @Scheduled(cron = "${leave.allocation.cron:0 15 0 1 1 *}")
+    public void runYearly() {
+        runSafely();
+    }
+
+    public AllocationResult runFor(int year) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Leave allocation is already running");
+        }
+        try {
+            long maxId = employeeRepository.findMaxId();
+            int entries = 0;
+            for (long fromId = 0; fromId < maxId; fromId += batchSize) {
+                entries += leaveBalanceRepository.allocateYear(year, fromId, fromId + batchSize, defaultAllocation);
+            }
+            logger.info("Leave allocation for {}: {} ledger entries written", year, entries);
+            return new AllocationResult(year, entries);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runSafely() {
+        int year = LocalDate.now().getYear();
+        try {
+            runFor(year);
+        } catch (RuntimeException e) {
+            logger.error("Leave allocation for {} failed: {}", year, e.getMessage(), e);
+        }
+    }
+
+    public record AllocationResult(int year, int ledgerEntries) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.workzen.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves leave audit logs from leave_log_outbox into leave_application_logs. Each batch is one
+ * statement that deletes the oldest outbox rows and inserts them as logs, so a row is moved
+ * exactly once; SKIP LOCKED lets several instances relay side by side. When a batch fails, its
+ * rows are retried one at a time and any row that still fails is moved to
+ * leave_log_outbox_dead_letters, so one bad row doesn't hold up the rest of the outbox.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveAuditLogRelayJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveAuditLogRelayJob.class);
+
+    private static final String MOVE =
+            "WITH moved AS (DELETE FROM leave_log_outbox WHERE id IN (" +
+            "  SELECT id FROM leave_log_outbox %s FOR UPDATE SKIP LOCKED) " +
+            "  RETURNING id, leave_application_id, previous_status, new_status, changed_by_id, remarks, action_type, changed_at) " +
+            "INSERT INTO leave_application_logs (leave_application_id, previous_status, new_status, changed_by_id, " +
+            "remarks, action_type, changed_at) " +
+            "SELECT leave_application_id, previous_status, new_status, changed_by_id, remarks, action_type, changed_at " +
+            "FROM moved ORDER BY id";
+
+    private static final String MOVE_BATCH = String.format(MOVE, "ORDER BY id LIMIT :batchSize");
+
+    private static final String MOVE_ONE = String.format(MOVE, "WHERE id = :id");
+
+    private static final String FIND_BATCH_IDS = "SELECT id FROM leave_log_outbox ORDER BY id LIMIT :batchSize";
+
+    private static final String DEAD_LETTER =
+            "WITH failed AS (DELETE FROM leave_log_outbox WHERE id IN (" +
+            "  SELECT id FROM leave_log_outbox WHERE id = :id FOR UPDATE SKIP LOCKED) " +
+            "  RETURNING id, leave_application_id, previous_status, new_status, changed_by_id, remarks, action_type, changed_at) " +
+            "INSERT INTO leave_log_outbox_dead_letters (outbox_id, leave_application_id, previous_status, new_status, " +
+            "changed_by_id, remarks, action_type, changed_at, error, failed_at) " +
+            "SELECT id, leave_application_id, previous_status, new_status, changed_by_id, remarks, action_type, changed_at, " +
+            ":error, now() FROM failed";
+
+    // Matches leave_log_outbox_dead_letters.error
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${leave.audit.relay-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${leave.audit.relay-interval-ms:2000}")
+    public void runScheduled() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            logger.error("Leave audit log relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Relays until the outbox is empty; returns the number of rows taken off it, dead letters included.
+     */
+    public int run() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource("batchSize", batchSize);
+            int total = 0;
+            int moved;
+            do {
+                try {
+                    moved = jdbcTemplate.update(MOVE_BATCH, params);
+                } catch (DataAccessException e) {
+                    logger.warn("Leave audit log batch failed, relaying row by row: {}", e.getMessage());
+                    moved = relayOneByOne(params);
+                }
+                total += moved;
+            } while (moved == batchSize);
+            if (total > 0) {
+                logger.debug("Relayed {} leave audit logs", total);
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Moves the oldest batch one row per statement, dead-lettering rows that fail on their own.
+     * Returns the number of rows taken off the outbox either way.
+     */
+    private int relayOneByOne(MapSqlParameterSource batchParams) {
+        List<Long> ids = jdbcTemplate.queryForList(FIND_BATCH_IDS, batchParams, Long.class);
+        int handled = 0;
+        for (Long id : ids) {
+            MapSqlParameterSource params = new MapSqlParameterSource("id", id);
+            try {
+                handled += jdbcTemplate.update(MOVE_ONE, params);
+            } catch (DataAccessException e) {
+                String error = e.getMostSpecificCause().getMessage();
+                if (error != null && error.length() > MAX_ERROR_LENGTH) {
+                    error = error.substring(0, MAX_ERROR_LENGTH);
+                }
+                handled += jdbcTemplate.update(DEAD_LETTER, params.addValue("error", error));
+                logger.error("Leave audit log outbox row {} moved to dead letters: {}", id, error);
+            }
+        }
+        return handled;
+    }
+}
@@ -0,0 +1,262 @@
+package com.workzen.scheduler;
+
+import com.workzen.util.LeaveUnits;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Year-end leave rollover. Walks the closing year's balances once, in id order and in chunks
+ * (each chunk locked and written in its own transaction), and for every balance:
+ * 1. carries unused leave into next year's opening balance, up to the leave type's cap
+ * 2. encashes what is left, up to the encashment cap, as a line for the next payroll run
+ * 3. lets the rest lapse and closes the old balance at zero
+ *
+ * Amounts are whole minutes (leave type caps are in days and converted with LeaveUnits); the
+ * encashment line and the result are reported in days. Every movement is recorded in the leave ledger. Closed balances are marked rolled over, so a
+ * re-run (or a resume after a crash) only processes what is still open. Opening balances are
+ * upserted, so running after the yearly allocation job just corrects their carry-forward.
+ *
+ * Leave of the closed year that is still pending, or approved and later cancelled, is settled
+ * against next year's balance from then on (see LeaveBalanceRepository.OPEN_BALANCE_YEAR).
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveRolloverJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveRolloverJob.class);
+
+    private static final String SELECT_OPEN_BALANCES =
+            "SELECT lb.id, lb.employee_id, lb.leave_type_id, lb.balance_minutes, e.salary, " +
+            "e.status IN ('ACTIVE', 'PROBATION', 'ON_LEAVE') AS employed, " +
+            "COALESCE(lt.is_active, false) AS type_active, COALESCE(lt.max_days_per_year, :defaultAllocation) AS allocation, " +
+            "COALESCE(lt.is_carry_forward, false) AS carry_forward, lt.max_carry_forward_days, " +
+            "COALESCE(lt.is_encashable, false) AS encashable, lt.max_encashment_days " +
+            "FROM leave_balances lb " +
+            "JOIN leave_types lt ON lt.id = lb.leave_type_id " +
+            "JOIN employees e ON e.id = lb.employee_id " +
+            "WHERE lb.year = :year AND lb.id > :afterId AND lb.rolled_over IS NOT TRUE " +
+            "ORDER BY lb.id LIMIT :batchSize " +
+            "FOR UPDATE OF lb";
+
+    // Upserts next year's balance; ALLOCATION is logged only for new rows, CARRY_FORWARD for any change in the carried amount
+    private static final String UPSERT_OPENING_BALANCE =
+            "WITH prev AS (SELECT carried_forward_minutes FROM leave_balances " +
+            "  WHERE employee_id = :employeeId AND leave_type_id = :leaveTypeId AND year = :nextYear), " +
+            "up AS (INSERT INTO leave_balances (employee_id, leave_type_id, year, allocated_minutes, used_minutes, " +
+            "  balance_minutes, carried_forward_minutes, rolled_over, created_at, updated_at, created_by, version) " +
+            "  VALUES (:employeeId, :leaveTypeId, :nextYear, :allocation + :carry, 0, :allocation + :carry, :carry, false, " +
+            "  now(), now(), 'system', 0) " +
+            "  ON CONFLICT (employee_id, leave_type_id, year) DO UPDATE SET " +
+            "  allocated_minutes = leave_balances.allocated_minutes - leave_balances.carried_forward_minutes " +
+            "    + EXCLUDED.carried_forward_minutes, " +
+            "  balance_minutes = leave_balances.balance_minutes - leave_balances.carried_forward_minutes " +
+            "    + EXCLUDED.carried_forward_minutes, " +
+            "  carried_forward_minutes = EXCLUDED.carried_forward_minutes, updated_at = now(), " +
+            "  version = COALESCE(leave_balances.version, 0) + 1 " +
+            "  RETURNING id, balance_minutes, allocated_minutes, carried_forward_minutes, (xmax = 0) AS inserted) " +
+            "INSERT INTO leave_ledger_entries (leave_balance_id, entry_type, minutes, balance_after_minutes, remarks, " +
+            "created_at, created_by) " +
+            "SELECT id, 'ALLOCATION', allocated_minutes - carried_forward_minutes, allocated_minutes - carried_forward_minutes, " +
+            "'Yearly allocation', now(), 'system' FROM up WHERE inserted " +
+            "UNION ALL " +
+            "SELECT id, 'CARRY_FORWARD', carried_forward_minutes - COALESCE((SELECT carried_forward_minutes FROM prev), 0), " +
+            "balance_minutes, 'Carried forward from ' || :year, now(), 'system' FROM up " +
+            "WHERE carried_forward_minutes <> COALESCE((SELECT carried_forward_minutes FROM prev), 0)";
+
+    private static final String INSERT_ENCASHMENT =
+            "INSERT INTO leave_encashments (employee_id, leave_type_id, year, days, daily_rate, amount, processed, " +
+            "created_at, updated_at, created_by, version) " +
+            "VALUES (:employeeId, :leaveTypeId, :year, :encash, :dailyRate, :amount, false, now(), now(), 'system', 0) " +
+            "ON CONFLICT (employee_id, leave_type_id, year) DO NOTHING";
+
+    // Closes the old balance at zero with one ledger entry per non-zero movement
+    private static final String CLOSE_BALANCE =
+            "WITH closed AS (UPDATE leave_balances SET balance_minutes = 0, rolled_over = true, updated_at = now(), " +
+            "  version = COALESCE(version, 0) + 1 WHERE id = :balanceId RETURNING id) " +
+            "INSERT INTO leave_ledger_entries (leave_balance_id, entry_type, minutes, balance_after_minutes, remarks, " +
+            "created_at, created_by) " +
+            "SELECT c.id, v.entry_type, v.minutes, v.balance_after, v.remarks, now(), 'system' FROM closed c " +
+            "CROSS JOIN (VALUES " +
+            "  ('CARRY_FORWARD', -CAST(:carry AS bigint), CAST(:remaining - :carry AS bigint), 'Carried forward to ' || (:year + 1)), " +
+            "  ('ENCASHMENT', -CAST(:encash AS bigint), CAST(:remaining - :carry - :encash AS bigint), 'Encashed at year end'), " +
+            "  ('LAPSE', -CAST(:lapse AS bigint), CAST(0 AS bigint), 'Lapsed at year end')) " +
+            "  AS v(entry_type, minutes, balance_after, remarks) " +
+            "WHERE v.minutes <> 0";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${leave.rollover.batch-size:500}")
+    private int batchSize;
+
+    @Value("${leave.allocation.default-days:20}")
+    private double defaultAllocation;
+
+    // Daily rate for encashment is monthly salary divided by this
+    @Value("${leave.encashment.days-per-month:30}")
+    private double daysPerMonth;
+
+    @Scheduled(cron = "${leave.rollover.cron:0 5 0 1 1 *}")
+    public void runYearly() {
+        int closingYear = LocalDate.now().getYear() - 1;
+        try {
+            runFor(closingYear);
+        } catch (RuntimeException e) {
+            logger.error("Leave rollover for {} failed: {}", closingYear, e.getMessage(), e);
+        }
+    }
+
+    public RolloverResult runFor(int year) {
+        if (year >= LocalDate.now().getYear()) {
+            throw new RuntimeException("Only past leave years can be rolled over");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Leave rollover is already running");
+        }
+        try {
+            RolloverResult total = new RolloverResult(year, 0, 0, 0, 0, 0);
+            long afterId = 0;
+            while (true) {
+                long cursor = afterId;
+                ChunkResult chunk = transactionTemplate.execute(status -> processChunk(year, cursor));
+                if (chunk == null || chunk.balances() == 0) {
+                    break;
+                }
+                total = total.plus(chunk);
+                afterId = chunk.lastId();
+            }
+            logger.info("Leave rollover for {}: {} balances closed, {} days carried, {} days encashed ({}), {} days lapsed",
+                    year, total.balancesClosed(), total.daysCarried(), total.daysEncashed(),
+                    total.encashmentAmount(), total.daysLapsed());
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ChunkResult processChunk(int year, long afterId) {
+        MapSqlParameterSource query = new MapSqlParameterSource()
+                .addValue("year", year)
+                .addValue("afterId", afterId)
+                .addValue("batchSize", batchSize)
+                .addValue("defaultAllocation", defaultAllocation);
+
+        List<SqlParameterSource> openings = new ArrayList<>();
+        List<SqlParameterSource> encashments = new ArrayList<>();
+        List<SqlParameterSource> closings = new ArrayList<>();
+        long[] totals = new long[3];
+        double[] encashmentAmount = {0};
+        long[] lastId = {afterId};
+
+        jdbcTemplate.query(SELECT_OPEN_BALANCES, query, rs -> {
+            long balanceId = rs.getLong("id");
+            long employeeId = rs.getLong("employee_id");
+            long leaveTypeId = rs.getLong("leave_type_id");
+            long remaining = Math.max(0, rs.getLong("balance_minutes"));
+            boolean continues = rs.getBoolean("employed") && rs.getBoolean("type_active");
+
+            boolean carryForward = rs.getBoolean("carry_forward");
+            Integer maxCarryDays = rs.getObject("max_carry_forward_days", Integer.class);
+            boolean encashable = rs.getBoolean("encashable");
+            Integer maxEncashDays = rs.getObject("max_encashment_days", Integer.class);
+            Split split = split(remaining, continues && carryForward, maxCarryDays, encashable, maxEncashDays);
+            long carry = split.carry();
+            long encash = split.encash();
+            long lapse = split.lapse();
+
+            if (continues) {
+                openings.add(new MapSqlParameterSource()
+                        .addValue("employeeId", employeeId)
+                        .addValue("leaveTypeId", leaveTypeId)
+                        .addValue("year", year)
+                        .addValue("nextYear", year + 1)
+                        .addValue("allocation", LeaveUnits.fromDays(rs.getDouble("allocation")))
+                        .addValue("carry", carry));
+            }
+            if (encash > 0) {
+                double dailyRate = Math.round(rs.getDouble("salary") / daysPerMonth * 100) / 100.0;
+                double encashDays = LeaveUnits.toDays(encash);
+                double amount = Math.round(dailyRate * encashDays * 100) / 100.0;
+                encashments.add(new MapSqlParameterSource()
+                        .addValue("employeeId", employeeId)
+                        .addValue("leaveTypeId", leaveTypeId)
+                        .addValue("year", year)
+                        .addValue("encash", encashDays)
+                        .addValue("dailyRate", dailyRate)
+                        .addValue("amount", amount));
+                encashmentAmount[0] += amount;
+            }
+            closings.add(new MapSqlParameterSource()
+                    .addValue("balanceId", balanceId)
+                    .addValue("year", year)
+                    .addValue("remaining", remaining)
+                    .addValue("carry", carry)
+                    .addValue("encash", encash)
+                    .addValue("lapse", lapse));
+
+            totals[0] += carry;
+            totals[1] += encash;
+            totals[2] += lapse;
+            lastId[0] = balanceId;
+        });
+
+        if (closings.isEmpty()) {
+            return new ChunkResult(0, afterId, 0, 0, 0, 0);
+        }
+        jdbcTemplate.batchUpdate(UPSERT_OPENING_BALANCE, openings.toArray(SqlParameterSource[]::new));
+        jdbcTemplate.batchUpdate(INSERT_ENCASHMENT, encashments.toArray(SqlParameterSource[]::new));
+        jdbcTemplate.batchUpdate(CLOSE_BALANCE, closings.toArray(SqlParameterSource[]::new));
+        return new ChunkResult(closings.size(), lastId[0], LeaveUnits.toDays(totals[0]), LeaveUnits.toDays(totals[1]),
+                LeaveUnits.toDays(totals[2]), encashmentAmount[0]);
+    }
+
+    /**
+     * Splits a closing balance: carry up to the carry cap (when the balance continues into next
+     * year), then encash up to the encashment cap, then lapse the rest. A null cap means no limit.
+     */
+    static Split split(long remaining, boolean carryForward, Integer maxCarryDays,
+                       boolean encashable, Integer maxEncashDays) {
+        long carry = 0;
+        if (carryForward) {
+            carry = maxCarryDays == null ? remaining : Math.min(remaining, maxCarryDays * LeaveUnits.MINUTES_PER_DAY);
+        }
+        long encash = 0;
+        if (encashable) {
+            encash = maxEncashDays == null ? remaining - carry
+                    : Math.min(remaining - carry, maxEncashDays * LeaveUnits.MINUTES_PER_DAY);
+        }
+        return new Split(carry, encash, remaining - carry - encash);
+    }
+
+    record Split(long carry, long encash, long lapse) {
+    }
+
+    private record ChunkResult(int balances, long lastId, double daysCarried, double daysEncashed,
+                               double daysLapsed, double encashmentAmount) {
+    }
+
+    public record RolloverResult(int year, int balancesClosed, double daysCarried, double daysEncashed,
+                                 double daysLapsed, double encashmentAmount) {
+
+        private RolloverResult plus(ChunkResult chunk) {
+            return new RolloverResult(year, balancesClosed + chunk.balances(),
+                    daysCarried + chunk.daysCarried(), daysEncashed + chunk.daysEncashed(),
+                    daysLapsed + chunk.daysLapsed(), encashmentAmount + chunk.encashmentAmount());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.workzen.service;
+
+import com.workzen.dto.AttendanceStatsDTO;
+import com.workzen.entity.Attendance;
+import com.workzen.enums.AttendanceStatus;
+import com.workzen.repository.AttendanceMonthlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Keeps attendance_monthly_rollup in step with the attendance table. Every write
+ * is expressed as "remove the old contribution, add the new one" so a single
+ * upsert covers inserts, updates and deletes.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AttendanceRollupService {
+
+    private final AttendanceMonthlyRollupRepository rollupRepository;
+
+    /**
+     * Immutable view of what one attendance row adds to its month's bucket.
+     * Take it before mutating an entity so the old values can be subtracted.
+     */
+    public record Contribution(Long employeeId, LocalDate date, AttendanceStatus status,
+                               double totalHours, double overtimeHours) {
+
+        public static Contribution of(Attendance attendance) {
+            return new Contribution(
+                    attendance.getEmployee().getId(),
+                    attendance.getDate(),
+                    attendance.getStatus(),
+                    attendance.getTotalHours() != null ? attendance.getTotalHours() : 0.0,
+                    attendance.getOvertimeHours() != null ? attendance.getOvertimeHours() : 0.0);
+        }
+    }
+
+    public void recordInsert(Attendance attendance) {
+        replace(null, Contribution.of(attendance));
+    }
+
+    public void recordDelete(Attendance attendance) {
+        replace(Contribution.of(attendance), null);
+    }
+
+    public void replace(Contribution before, Contribution after) {
+        if (before != null && after != null
+                && before.employeeId().equals(after.employeeId())
+                && YearMonth.from(before.date()).equals(YearMonth.from(after.date()))) {
+            int[] counts = new int[AttendanceStatus.values().length];
+            counts[before.status().ordinal()]--;
+            counts[after.status().ordinal()]++;
+            apply(after.employeeId(), YearMonth.from(after.date()), counts,
+                    after.totalHours() - before.totalHours(),
+                    after.overtimeHours() - before.overtimeHours());
+            return;
+        }
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    /**
+     * Sums the rollup buckets of every month from {@code from} to {@code to}, both inclusive.
+     */
+    @Transactional(readOnly = true)
+    public AttendanceStatsDTO sumMonths(Long employeeId, YearMonth from, YearMonth to) {
+        AttendanceStatsDTO stats = rollupRepository.sumByEmployeeAndPeriod(
+                employeeId, toPeriod(from), toPeriod(to));
+        return stats != null ? stats : new AttendanceStatsDTO();
+    }
+
+    /**
+     * Recomputes one month for all employees from raw attendance rows.
+     */
+    public int rebuildMonth(YearMonth month) {
+        rollupRepository.deleteByYearAndMonth(month.getYear(), month.getMonthValue());
+        return rollupRepository.rebuildMonth(month.getYear(), month.getMonthValue(),
+                month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        int[] counts = new int[AttendanceStatus.values().length];
+        counts[contribution.status().ordinal()] = sign;
+        apply(contribution.employeeId(), YearMonth.from(contribution.date()), counts,
+                sign * contribution.totalHours(), sign * contribution.overtimeHours());
+    }
+
+    private void apply(Long employeeId, YearMonth month, int[] counts, double totalHours, double overtimeHours) {
+        rollupRepository.applyDelta(employeeId, month.getYear(), month.getMonthValue(),
+                counts[AttendanceStatus.PRESENT.ordinal()],
+                counts[AttendanceStatus.ABSENT.ordinal()],
+                counts[AttendanceStatus.HALF_DAY.ordinal()],
+                counts[AttendanceStatus.WORK_FROM_HOME.ordinal()],
+                counts[AttendanceStatus.ON_LEAVE.ordinal()],
+                counts[AttendanceStatus.HOLIDAY.ordinal()],
+                counts[AttendanceStatus.WEEKEND.ordinal()],
+                totalHours, overtimeHours);
+    }
+
+    private static int toPeriod(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+}
@@ -1,10 +1,15 @@
 package com.workzen.service;
 
+import com.workzen.dto.AttendanceAnomalyDTO;
+import com.workzen.dto.AttendanceDTO;
+import com.workzen.dto.AttendanceStatsDTO;
+import com.workzen.dto.TeamAttendanceCalendarDTO;
 import com.workzen.entity.Attendance;
+import com.workzen.entity.AttendanceAnomaly;
 import com.workzen.entity.Employee;
-import com.workzen.entity.LeaveApplication;
 import com.workzen.enums.AttendanceStatus;
 import com.workzen.enums.LeaveStatus;
+import com.workzen.repository.AttendanceAnomalyRepository;
 import com.workzen.repository.AttendanceRepository;
 import com.workzen.repository.LeaveApplicationRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +21,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -25,8 +36,37 @@ public class AttendanceService {
     
     private final AttendanceRepository attendanceRepository;
     private final LeaveApplicationRepository leaveApplicationRepository;
+    private final AttendanceRollupService attendanceRollupService;
+    private final ShiftScheduleCache shiftScheduleCache;
+    private final CheckInDeduplicator checkInDeduplicator;
+    private final AttendanceAnomalyRepository attendanceAnomalyRepository;
+    
+    /**
+     * Source of a check-in as reported by the client; any part may be null.
+     */
+    public record CheckInMetadata(String ip, Double latitude, Double longitude, String userAgent) {
+        
+        public CheckInMetadata {
+            if (latitude != null && (!Double.isFinite(latitude) || latitude < -90 || latitude > 90)) {
+                throw new RuntimeException("Latitude must be between -90 and 90");
+            }
+            if (longitude != null && (!Double.isFinite(longitude) || longitude < -180 || longitude > 180)) {
+                throw new RuntimeException("Longitude must be between -180 and 180");
+            }
+            if (ip != null && ip.length() > 45) {
+                ip = ip.substring(0, 45);
+            }
+            if (userAgent != null && userAgent.length() > 255) {
+                userAgent = userAgent.substring(0, 255);
+            }
+        }
+    }
     
     public Attendance checkIn(Employee employee, LocalDateTime checkInTime) {
+        return checkIn(employee, checkInTime, null);
+    }
+    
+    public Attendance checkIn(Employee employee, LocalDateTime checkInTime, CheckInMetadata metadata) {
         LocalDate date = checkInTime.toLocalDate();
         
         if (attendanceRepository.existsByEmployeeAndDate(employee, date)) {
@@ -38,9 +78,18 @@ public class AttendanceService {
                 .date(date)
                 .checkIn(checkInTime)
                 .status(AttendanceStatus.PRESENT)
+                .lateMinutes(shiftScheduleCache.getSchedule(employee).lateMinutes(checkInTime))
                 .build();
+        if (metadata != null) {
+            attendance.setCheckInIp(metadata.ip());
+            attendance.setCheckInLatitude(metadata.latitude());
+            attendance.setCheckInLongitude(metadata.longitude());
+            attendance.setCheckInUserAgent(metadata.userAgent());
+        }
         
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceRollupService.recordInsert(saved);
+        return saved;
     }
     
     /**
@@ -60,9 +109,13 @@ public class AttendanceService {
                             .date(today)
                             .checkIn(now)
                             .status(AttendanceStatus.PRESENT)
+                            .lateMinutes(shiftScheduleCache.getSchedule(employee).lateMinutes(now))
                             .remarks("Auto-marked on login")
                             .build();
-                    return attendanceRepository.save(attendance);
+                    Attendance saved = attendanceRepository.save(attendance);
+                    attendanceRollupService.recordInsert(saved);
+                    checkInDeduplicator.evictAfterCommit(employee.getId(), today);
+                    return saved;
                 });
     }
     
@@ -76,22 +129,27 @@ public class AttendanceService {
             throw new RuntimeException("Already checked out for today");
         }
         
+        AttendanceRollupService.Contribution before = AttendanceRollupService.Contribution.of(attendance);
         attendance.setCheckOut(checkOutTime);
         
-        // Calculate total hours
+        // Calculate total hours, early leave and overtime against the employee's shift
+        ShiftScheduleCache.WorkSchedule schedule = shiftScheduleCache.getSchedule(employee);
+        attendance.setEarlyLeaveMinutes(schedule.earlyLeaveMinutes(date, checkOutTime));
         if (attendance.getCheckIn() != null) {
-            Duration duration = Duration.between(attendance.getCheckIn(), checkOutTime);
-            double hours = duration.toMinutes() / 60.0;
-            attendance.setTotalHours(hours);
+            long workedMinutes = Duration.between(attendance.getCheckIn(), checkOutTime).toMinutes();
+            attendance.setTotalHours(workedMinutes / 60.0);
             
-            // Check for overtime (assuming 8 hours is standard)
-            if (hours > 8) {
+            long overtimeMinutes = schedule.overtimeMinutes(date.getDayOfWeek(), workedMinutes);
+            if (overtimeMinutes > 0) {
                 attendance.setIsOvertime(true);
-                attendance.setOvertimeHours(hours - 8);
+                attendance.setOvertimeHours(overtimeMinutes / 60.0);
             }
         }
         
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceRollupService.replace(before, AttendanceRollupService.Contribution.of(saved));
+        checkInDeduplicator.evictAfterCommit(employee.getId(), date);
+        return saved;
     }
     
     public Attendance markAttendance(Employee employee, LocalDate date, 
@@ -107,14 +165,21 @@ public class AttendanceService {
                 .remarks(remarks)
                 .build();
         
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceRollupService.recordInsert(saved);
+        checkInDeduplicator.evictAfterCommit(employee.getId(), date);
+        return saved;
     }
     
     public Attendance updateAttendance(Long id, AttendanceStatus status, String remarks) {
         Attendance attendance = findById(id);
+        AttendanceRollupService.Contribution before = AttendanceRollupService.Contribution.of(attendance);
         attendance.setStatus(status);
         attendance.setRemarks(remarks);
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceRollupService.replace(before, AttendanceRollupService.Contribution.of(saved));
+        checkInDeduplicator.evictAfterCommit(saved.getEmployee().getId(), saved.getDate());
+        return saved;
     }
     
     public Attendance findById(Long id) {
@@ -127,16 +192,27 @@ public class AttendanceService {
                 .orElse(null);
     }
     
-    public List<Attendance> getEmployeeAttendance(Employee employee, LocalDate startDate, LocalDate endDate) {
-        return attendanceRepository.findByEmployeeAndDateBetween(employee, startDate, endDate);
+    @Transactional(readOnly = true)
+    public List<AttendanceDTO> getEmployeeAttendance(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        return attendanceRepository.findDtosByEmployeeIdAndDateBetween(employeeId, startDate, endDate);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AttendanceDTO> getMonthlyAttendance(Long employeeId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return attendanceRepository.findDtosByEmployeeIdAndDateBetween(
+                employeeId, yearMonth.atDay(1), yearMonth.atEndOfMonth());
     }
     
-    public List<Attendance> getMonthlyAttendance(Employee employee, int year, int month) {
-        return attendanceRepository.findByEmployeeAndYearAndMonth(employee, year, month);
+    @Transactional(readOnly = true)
+    public Page<AttendanceDTO> getEmployeeAttendance(Long employeeId, Pageable pageable) {
+        return attendanceRepository.findDtosByEmployeeId(employeeId, pageable);
     }
     
-    public Page<Attendance> getEmployeeAttendance(Employee employee, Pageable pageable) {
-        return attendanceRepository.findByEmployee(employee, pageable);
+    @Transactional(readOnly = true)
+    public AttendanceDTO findDtoById(Long id) {
+        return attendanceRepository.findDtoById(id)
+                .orElseThrow(() -> new RuntimeException("Attendance not found with id: " + id));
     }
     
     public long getAttendanceCount(Employee employee, AttendanceStatus status, 
@@ -151,18 +227,151 @@ public class AttendanceService {
         return totalHours != null ? totalHours : 0.0;
     }
     
+    /**
+     * Stats for a date range. Whole calendar months before the current one are answered
+     * from the monthly rollup; only the partial months at either edge (including the
+     * current month) are read from raw attendance rows.
+     */
+    @Transactional(readOnly = true)
+    public AttendanceStatsDTO getAttendanceStats(Employee employee, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date cannot be before start date");
+        }
+        
+        YearMonth firstFull = startDate.getDayOfMonth() == 1
+                ? YearMonth.from(startDate) : YearMonth.from(startDate).plusMonths(1);
+        YearMonth lastFull = endDate.getDayOfMonth() == endDate.lengthOfMonth()
+                ? YearMonth.from(endDate) : YearMonth.from(endDate).minusMonths(1);
+        YearMonth lastClosed = YearMonth.now().minusMonths(1);
+        if (lastFull.isAfter(lastClosed)) {
+            lastFull = lastClosed;
+        }
+        
+        if (firstFull.isAfter(lastFull)) {
+            return toStats(attendanceRepository.countByStatusForEmployee(employee, startDate, endDate));
+        }
+        
+        // Rolled-up months form one contiguous window, so the partial edges come back in a single grouped query
+        AttendanceStatsDTO stats = attendanceRollupService.sumMonths(employee.getId(), firstFull, lastFull);
+        if (startDate.isBefore(firstFull.atDay(1)) || endDate.isAfter(lastFull.atEndOfMonth())) {
+            stats.add(toStats(attendanceRepository.countByStatusForEmployeeExcluding(
+                    employee, startDate, endDate, firstFull.atDay(1), lastFull.atEndOfMonth())));
+        }
+        return stats;
+    }
+    
+    /**
+     * Per-employee stats for everyone (or one department) with one grouped query.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AttendanceStatsDTO> getAttendanceStatsByEmployee(LocalDate startDate, LocalDate endDate,
+                                                                      Long departmentId) {
+        List<AttendanceRepository.EmployeeStatusCount> rows = departmentId != null
+                ? attendanceRepository.countByEmployeeAndStatusForDepartment(departmentId, startDate, endDate)
+                : attendanceRepository.countByEmployeeAndStatus(startDate, endDate);
+        
+        Map<Long, AttendanceStatsDTO> statsByEmployee = new LinkedHashMap<>();
+        for (AttendanceRepository.EmployeeStatusCount row : rows) {
+            statsByEmployee.computeIfAbsent(row.getEmployeeId(), id -> new AttendanceStatsDTO())
+                    .addStatus(row.getStatus(), row.getCount(), row.getTotalHours(), row.getOvertimeHours());
+        }
+        return statsByEmployee;
+    }
+    
+    private AttendanceStatsDTO toStats(List<AttendanceRepository.StatusCount> rows) {
+        AttendanceStatsDTO stats = new AttendanceStatsDTO();
+        for (AttendanceRepository.StatusCount row : rows) {
+            stats.addStatus(row.getStatus(), row.getCount(), row.getTotalHours(), row.getOvertimeHours());
+        }
+        return stats;
+    }
+    
+    /**
+     * Month grid for a set of employees built from a single range query. Only the
+     * employee id, date and status columns are read; no Attendance entities are loaded.
+     */
+    @Transactional(readOnly = true)
+    public TeamAttendanceCalendarDTO getTeamCalendar(List<Employee> members, YearMonth month) {
+        int days = month.lengthOfMonth();
+        long[] employeeIds = new long[members.size()];
+        String[] employeeCodes = new String[members.size()];
+        String[] employeeNames = new String[members.size()];
+        char[][] grid = new char[members.size()][days];
+        Map<Long, Integer> rowByEmployee = new HashMap<>();
+        
+        for (int i = 0; i < members.size(); i++) {
+            Employee member = members.get(i);
+            employeeIds[i] = member.getId();
+            employeeCodes[i] = member.getEmployeeCode();
+            employeeNames[i] = member.getFullName();
+            Arrays.fill(grid[i], AttendanceStatus.NO_RECORD);
+            rowByEmployee.put(member.getId(), i);
+        }
+        
+        if (!members.isEmpty()) {
+            List<AttendanceRepository.AttendanceCell> cells = attendanceRepository.findCellsByEmployeeIdsAndDateBetween(
+                    rowByEmployee.keySet(), month.atDay(1), month.atEndOfMonth());
+            for (AttendanceRepository.AttendanceCell cell : cells) {
+                grid[rowByEmployee.get(cell.getEmployeeId())][cell.getDate().getDayOfMonth() - 1] = cell.getStatus().getCode();
+            }
+        }
+        
+        String[] statuses = new String[members.size()];
+        for (int i = 0; i < grid.length; i++) {
+            statuses[i] = new String(grid[i]);
+        }
+        
+        Map<Character, String> legend = new LinkedHashMap<>();
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            legend.put(status.getCode(), status.getDisplayName());
+        }
+        legend.put(AttendanceStatus.NO_RECORD, "No Record");
+        
+        return TeamAttendanceCalendarDTO.builder()
+                .year(month.getYear())
+                .month(month.getMonthValue())
+                .days(days)
+                .employeeIds(employeeIds)
+                .employeeCodes(employeeCodes)
+                .employeeNames(employeeNames)
+                .statuses(statuses)
+                .legend(legend)
+                .build();
+    }
+    
+    public int rebuildRollup(YearMonth month) {
+        return attendanceRollupService.rebuildMonth(month);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<AttendanceAnomalyDTO> getAnomalies(boolean resolved, Pageable pageable) {
+        return attendanceAnomalyRepository.findDtosByResolved(resolved, pageable);
+    }
+    
+    public void resolveAnomaly(Long id) {
+        AttendanceAnomaly anomaly = attendanceAnomalyRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Attendance anomaly not found with id: " + id));
+        anomaly.setResolved(true);
+        attendanceAnomalyRepository.save(anomaly);
+    }
+    
     public void deleteAttendance(Long id) {
         Attendance attendance = findById(id);
+        attendanceRollupService.recordDelete(attendance);
         attendanceRepository.delete(attendance);
+        checkInDeduplicator.evictAfterCommit(attendance.getEmployee().getId(), attendance.getDate());
     }
     
     public boolean hasApprovedLeaveToday(Employee employee) {
-        LocalDate today = LocalDate.now();
-        List<LeaveApplication> approvedLeaves = leaveApplicationRepository
-                .findByEmployeeAndStatus(employee, LeaveStatus.APPROVED);
-        
-        return approvedLeaves.stream()
-                .anyMatch(leave -> !today.isBefore(leave.getStartDate()) && 
-                                 !today.isAfter(leave.getEndDate()));
+        return leaveApplicationRepository.existsByEmployeeIdAndStatusOnDate(
+                employee.getId(), LeaveStatus.APPROVED, LocalDate.now());
+    }
+    
+    /**
+     * Ids of all employees with an approved leave covering the given date, for callers
+     * that need leave status for many employees at once.
+     */
+    public Set<Long> getEmployeeIdsOnLeave(LocalDate date) {
+        return leaveApplicationRepository.findEmployeeIdsByStatusOnDate(LeaveStatus.APPROVED, date);
     }
 }
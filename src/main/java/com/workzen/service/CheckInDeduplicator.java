@@ -0,0 +1,85 @@
+package com.workzen.service;
+
+import com.workzen.dto.AttendanceDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Absorbs retried check-ins (mobile clients on flaky networks) before they reach the database.
+ * The first request for an employee and day claims the slot with putIfAbsent; concurrent
+ * duplicates are rejected while it runs and later ones get the stored result replayed.
+ * Entries only live for the current day, and are dropped once any other write to that day's
+ * attendance commits so a retry never replays a result an admin has since changed.
+ */
+@Component
+public class CheckInDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInDeduplicator.class);
+
+    // Placeholder while the winning request is still being written
+    private static final Object PENDING = new Object();
+
+    private final Map<Key, Object> checkIns = new ConcurrentHashMap<>();
+
+    private record Key(long employeeId, LocalDate date) {
+    }
+
+    public AttendanceDTO deduplicate(Long employeeId, LocalDate date, Supplier<AttendanceDTO> checkIn) {
+        Key key = new Key(employeeId, date);
+        Object existing = checkIns.putIfAbsent(key, PENDING);
+        if (existing instanceof AttendanceDTO previous) {
+            return previous;
+        }
+        if (existing != null) {
+            throw new RuntimeException("Check-in is already being processed");
+        }
+
+        try {
+            AttendanceDTO result = checkIn.get();
+            checkIns.put(key, result);
+            return result;
+        } catch (RuntimeException e) {
+            // Free the slot so a corrected retry is not blocked for the rest of the day
+            checkIns.remove(key, PENDING);
+            throw e;
+        }
+    }
+
+    public void evict(Long employeeId, LocalDate date) {
+        checkIns.remove(new Key(employeeId, date));
+    }
+
+    /**
+     * Evicts once the surrounding transaction commits; evicting earlier would let a retry cache
+     * the old row again before the change is visible. Evicts immediately outside a transaction.
+     */
+    public void evictAfterCommit(Long employeeId, LocalDate date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(employeeId, date);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(employeeId, date);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${attendance.check-in.dedupe-purge-cron:0 5 0 * * *}")
+    public void purgeExpired() {
+        LocalDate today = LocalDate.now();
+        int before = checkIns.size();
+        checkIns.keySet().removeIf(key -> key.date().isBefore(today));
+        logger.debug("Purged {} check-in dedupe entries", before - checkIns.size());
+    }
+}
@@ -6,6 +6,8 @@ import com.workzen.repository.DepartmentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
@@ -15,12 +17,16 @@ import java.util.List;
 public class DepartmentService {
     
     private final DepartmentRepository departmentRepository;
+    private final OrgHierarchyCache orgHierarchyCache;
+    private final EmployeeDirectoryCache employeeDirectoryCache;
     
     public Department createDepartment(Department department) {
         if (departmentRepository.existsByName(department.getName())) {
             throw new RuntimeException("Department with name '" + department.getName() + "' already exists");
         }
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        reloadOrgCachesAfterCommit();
+        return saved;
     }
     
     public Department updateDepartment(Long id, Department departmentDetails) {
@@ -36,7 +42,9 @@ public class DepartmentService {
         department.setManager(departmentDetails.getManager());
         department.setIsActive(departmentDetails.getIsActive());
         
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        reloadOrgCachesAfterCommit();
+        return saved;
     }
     
     public Department findById(Long id) {
@@ -65,23 +73,38 @@ public class DepartmentService {
     public void deleteDepartment(Long id) {
         Department department = findById(id);
         departmentRepository.delete(department);
+        reloadOrgCachesAfterCommit();
     }
     
     public void deactivateDepartment(Long id) {
         Department department = findById(id);
         department.setIsActive(false);
         departmentRepository.save(department);
+        reloadOrgCachesAfterCommit();
     }
     
     public void activateDepartment(Long id) {
         Department department = findById(id);
         department.setIsActive(true);
         departmentRepository.save(department);
+        reloadOrgCachesAfterCommit();
     }
     
     public void setManager(Long departmentId, Employee manager) {
         Department department = findById(departmentId);
         department.setManager(manager);
         departmentRepository.save(department);
+        reloadOrgCachesAfterCommit();
+    }
+    
+    private void reloadOrgCachesAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orgHierarchyCache.reload();
+                // Directory rows carry department names
+                employeeDirectoryCache.reload();
+            }
+        });
     }
 }
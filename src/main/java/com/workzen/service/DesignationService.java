@@ -5,6 +5,8 @@ import com.workzen.repository.DesignationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
@@ -14,6 +16,7 @@ import java.util.List;
 public class DesignationService {
     
     private final DesignationRepository designationRepository;
+    private final EmployeeDirectoryCache employeeDirectoryCache;
     
     public Designation createDesignation(Designation designation) {
         if (designationRepository.existsByName(designation.getName())) {
@@ -35,7 +38,15 @@ public class DesignationService {
         designation.setLevel(designationDetails.getLevel());
         designation.setIsActive(designationDetails.getIsActive());
         
-        return designationRepository.save(designation);
+        Designation saved = designationRepository.save(designation);
+        // Directory rows carry designation names
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                employeeDirectoryCache.reload();
+            }
+        });
+        return saved;
     }
     
     public Designation findById(Long id) {
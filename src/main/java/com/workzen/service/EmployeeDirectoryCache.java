@@ -0,0 +1,391 @@
+package com.workzen.service;
+
+import com.workzen.dto.employee.EmployeeDirectoryEntry;
+import com.workzen.enums.EmployeeStatus;
+import com.workzen.event.EmployeeChangedEvent;
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.repository.EmployeeRepository.DirectoryRow;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory employee directory for typeahead pickers. Employees are kept as rows in parallel
+ * arrays (id, code, name, department, designation), and every word of a name or code is put in a
+ * prefix trie whose nodes hold the sorted rows below them. A lookup walks one trie path per typed
+ * word and intersects the row lists, so it never touches the database.
+ *
+ * The directory is loaded in one query at startup and built off to the side, then swapped in, so
+ * searches keep running on the old one meanwhile. A changed employee's row is re-read and
+ * re-indexed in place after commit; department changes reload everything (see DepartmentService).
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeDirectoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeDirectoryCache.class);
+
+    private static final int MAX_RESULTS = 50;
+
+    private final EmployeeRepository employeeRepository;
+
+    // Guards the current directory: searches read it, single-employee refreshes edit it in place
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Directory directory = new Directory(0);
+
+    // One reload at a time; employees refreshed while it reads are refreshed again once it is swapped in
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Set<Long> refreshedDuringReload = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloading;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    public void reload() {
+        List<Long> missed;
+        reloadLock.lock();
+        try {
+            refreshedDuringReload.clear();
+            reloading = true;
+            List<DirectoryRow> rows = employeeRepository.findAllDirectoryRows();
+            Directory built = new Directory(rows.size());
+            rows.forEach(built::append);
+            built.root.seal();
+
+            lock.writeLock().lock();
+            try {
+                directory = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Loaded employee directory: {} employees", rows.size());
+        } finally {
+            reloading = false;
+            missed = new ArrayList<>(refreshedDuringReload);
+            refreshedDuringReload.clear();
+            reloadLock.unlock();
+        }
+        // Their changes may have committed after the directory query read them
+        missed.forEach(this::refresh);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        refresh(event.employeeId());
+    }
+
+    public void refresh(Long employeeId) {
+        if (reloading) {
+            refreshedDuringReload.add(employeeId);
+        }
+        Optional<DirectoryRow> row = employeeRepository.findDirectoryRow(employeeId);
+        lock.writeLock().lock();
+        try {
+            directory.refresh(employeeId, row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Employees whose name or code words start with every word of {@code query}, an exact code
+     * match first and then by name.
+     */
+    public List<EmployeeDirectoryEntry> search(String query, int limit, boolean activeOnly) {
+        String[] words = words(query);
+        if (words.length == 0) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        String exactCode = query.trim();
+
+        lock.readLock().lock();
+        try {
+            Directory d = directory;
+            int[] matches = null;
+            for (String word : words) {
+                TrieNode node = d.root.find(word);
+                if (node == null) {
+                    return List.of();
+                }
+                matches = matches == null ? node.rows : intersect(matches, node.rows);
+            }
+
+            Comparator<Integer> order = Comparator
+                    .<Integer>comparingInt(row -> d.codes[row].equalsIgnoreCase(exactCode) ? 0 : 1)
+                    .thenComparing(row -> d.names[row], String.CASE_INSENSITIVE_ORDER)
+                    .thenComparingLong(row -> d.ids[row]);
+            // Keeps the best max rows seen so far, worst on top
+            PriorityQueue<Integer> best = new PriorityQueue<>(max + 1, order.reversed());
+            for (int row : matches) {
+                if (activeOnly && !d.active[row]) {
+                    continue;
+                }
+                best.add(row);
+                if (best.size() > max) {
+                    best.poll();
+                }
+            }
+
+            List<Integer> rows = new ArrayList<>(best);
+            rows.sort(order);
+            List<EmployeeDirectoryEntry> entries = new ArrayList<>(rows.size());
+            for (int row : rows) {
+                entries.add(new EmployeeDirectoryEntry(d.ids[row], d.codes[row], d.names[row], d.departments[row],
+                        d.designations[row], d.active[row]));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * One loaded directory. Row r describes one employee; an update rewrites the employee's row in place.
+     */
+    private static final class Directory {
+
+        private long[] ids;
+        private String[] codes;
+        private String[] names;
+        private String[] departments;
+        private String[] designations;
+        private boolean[] active;
+        private int size;
+        private final Map<Long, Integer> rowById;
+        private final TrieNode root = new TrieNode();
+
+        Directory(int expected) {
+            int capacity = Math.max(16, expected);
+            ids = new long[capacity];
+            codes = new String[capacity];
+            names = new String[capacity];
+            departments = new String[capacity];
+            designations = new String[capacity];
+            active = new boolean[capacity];
+            rowById = new HashMap<>(capacity * 4 / 3 + 1);
+        }
+
+        // Bulk load: rows arrive in increasing order, so every node's row list is appended to in order
+        void append(DirectoryRow row) {
+            int r = nextRow();
+            fill(r, row);
+            for (String word : words(names[r] + " " + codes[r])) {
+                TrieNode node = root;
+                for (int i = 0; i < word.length(); i++) {
+                    node = node.childOrCreate(word.charAt(i));
+                    node.append(r);
+                }
+            }
+        }
+
+        void refresh(Long employeeId, Optional<DirectoryRow> row) {
+            Integer existing = rowById.get(employeeId);
+            if (existing == null) {
+                row.ifPresent(present -> {
+                    int r = nextRow();
+                    fill(r, present);
+                    index(r);
+                });
+                return;
+            }
+            unindex(existing);
+            if (row.isPresent()) {
+                fill(existing, row.get());
+                index(existing);
+            } else {
+                rowById.remove(employeeId);
+                ids[existing] = 0;
+                codes[existing] = null;
+                names[existing] = null;
+                departments[existing] = null;
+                designations[existing] = null;
+                active[existing] = false;
+            }
+        }
+
+        private int nextRow() {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                codes = Arrays.copyOf(codes, capacity);
+                names = Arrays.copyOf(names, capacity);
+                departments = Arrays.copyOf(departments, capacity);
+                designations = Arrays.copyOf(designations, capacity);
+                active = Arrays.copyOf(active, capacity);
+            }
+            return size++;
+        }
+
+        private void fill(int r, DirectoryRow row) {
+            EmployeeStatus status = row.getStatus();
+            ids[r] = row.getEmployeeId();
+            codes[r] = row.getEmployeeCode();
+            names[r] = row.getFirstName() + " " + row.getLastName();
+            departments[r] = row.getDepartmentName();
+            designations[r] = row.getDesignationName();
+            active[r] = Boolean.TRUE.equals(row.getActive()) && status != null && status.canLogin();
+            rowById.put(row.getEmployeeId(), r);
+        }
+
+        private void index(int r) {
+            for (String word : words(names[r] + " " + codes[r])) {
+                TrieNode node = root;
+                for (int i = 0; i < word.length(); i++) {
+                    node = node.childOrCreate(word.charAt(i));
+                    node.addRow(r);
+                }
+            }
+        }
+
+        private void unindex(int r) {
+            // Rows are removed along every path of the row's words at once, so shared prefixes are fine
+            for (String word : words(names[r] + " " + codes[r])) {
+                TrieNode node = root;
+                for (int i = 0; i < word.length() && node != null; i++) {
+                    node = node.child(word.charAt(i));
+                    if (node != null) {
+                        node.removeRow(r);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class TrieNode {
+
+        // Children sorted by character
+        private char[] keys = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        // Sorted rows with a word passing through this node; while loading, only the first rowCount are used
+        private int[] rows = new int[0];
+        private int rowCount;
+
+        TrieNode child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        TrieNode childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            TrieNode node = new TrieNode();
+            char[] newKeys = new char[keys.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = node;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+
+        TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        // Loading only: amortised O(1), the same row twice in a row is one entry
+        void append(int row) {
+            if (rowCount > 0 && rows[rowCount - 1] == row) {
+                return;
+            }
+            if (rowCount == rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(4, rowCount * 2));
+            }
+            rows[rowCount++] = row;
+        }
+
+        // Trims every buffer to its rows once loading is done, so searches can use rows as is
+        void seal() {
+            if (rows.length != rowCount) {
+                rows = Arrays.copyOf(rows, rowCount);
+            }
+            for (TrieNode child : children) {
+                child.seal();
+            }
+        }
+
+        void addRow(int row) {
+            int i = Arrays.binarySearch(rows, row);
+            if (i >= 0) {
+                return;
+            }
+            int at = -i - 1;
+            int[] newRows = new int[rows.length + 1];
+            System.arraycopy(rows, 0, newRows, 0, at);
+            newRows[at] = row;
+            System.arraycopy(rows, at, newRows, at + 1, rows.length - at);
+            rows = newRows;
+            rowCount = rows.length;
+        }
+
+        void removeRow(int row) {
+            int i = Arrays.binarySearch(rows, row);
+            if (i < 0) {
+                return;
+            }
+            int[] newRows = new int[rows.length - 1];
+            System.arraycopy(rows, 0, newRows, 0, i);
+            System.arraycopy(rows, i + 1, newRows, i, rows.length - i - 1);
+            rows = newRows;
+            rowCount = rows.length;
+        }
+    }
+}
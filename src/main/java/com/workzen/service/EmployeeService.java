@@ -1,12 +1,17 @@
 package com.workzen.service;
 
+import com.workzen.dto.employee.EmployeeSearchResult;
 import com.workzen.entity.Department;
 import com.workzen.entity.Employee;
 import com.workzen.enums.Role;
 import com.workzen.enums.EmployeeStatus;
+import com.workzen.event.EmployeeChangedEvent;
 import com.workzen.repository.EmployeeRepository;
 import com.workzen.util.PasswordResetTokenUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -16,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +38,9 @@ public class EmployeeService {
     private final EmailService emailService;
     private final com.workzen.util.PasswordGenerator passwordGenerator;
     private final PasswordResetTokenUtil passwordResetTokenUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private volatile boolean trigramSearch;
     
     public Employee createEmployee(Employee employee) {
         // Validate email uniqueness
@@ -72,6 +81,7 @@ public class EmployeeService {
         
         // Save employee first
         Employee savedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(savedEmployee.getId()));
         
         // Send welcome email with credentials
         try {
@@ -122,7 +132,9 @@ public class EmployeeService {
         employee.setIfscCode(employeeDetails.getIfscCode());
         employee.setPanNumber(employeeDetails.getPanNumber());
         
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(saved.getId()));
+        return saved;
     }
     
     public Employee findById(Long id) {
@@ -130,6 +142,13 @@ public class EmployeeService {
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
     }
     
+    // Same error as findById, without loading the employee
+    public void requireExists(Long id) {
+        if (!employeeRepository.existsById(id)) {
+            throw new RuntimeException("Employee not found with id: " + id);
+        }
+    }
+    
     public Optional<Employee> findByEmail(String email) {
         return employeeRepository.findByEmail(email);
     }
@@ -143,29 +162,39 @@ public class EmployeeService {
     }
     
     public Page<Employee> findAll(Pageable pageable) {
-        return employeeRepository.findAll(pageable);
+        return employeeRepository.findPageWithDetails(pageable);
     }
     
-    public List<Employee> findByStatus(EmployeeStatus status) {
-        return employeeRepository.findByStatus(status);
+    public Page<Employee> findByStatus(EmployeeStatus status, Pageable pageable) {
+        return employeeRepository.findPageWithDetailsByStatus(status, pageable);
     }
     
-    public List<Employee> findByDepartment(Department department) {
-        return employeeRepository.findByDepartment(department);
+    public Page<Employee> findByDepartment(Department department, Pageable pageable) {
+        return employeeRepository.findPageWithDetailsByDepartmentId(department.getId(), pageable);
     }
     
-    public List<Employee> findByRole(Role role) {
-        return employeeRepository.findByRole(role);
+    public Page<Employee> findByRole(Role role, Pageable pageable) {
+        return employeeRepository.findPageWithDetailsByRole(role, pageable);
     }
     
     public List<Employee> findByManager(Employee manager) {
         return employeeRepository.findByManager(manager);
     }
     
+    public List<Employee> findSubordinates(Employee manager) {
+        return employeeRepository.findSubordinates(manager, EmployeeStatus.ACTIVE);
+    }
+    
+    public List<Employee> findActiveByDepartment(Department department) {
+        return employeeRepository.findByDepartmentAndStatus(department, EmployeeStatus.ACTIVE, Pageable.unpaged())
+                .getContent();
+    }
+    
     public void deleteEmployee(Long id) {
         Employee employee = findById(id);
         employee.setStatus(EmployeeStatus.TERMINATED);
         employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id));
     }
     
     public void changePassword(Long id, String newPassword) {
@@ -178,6 +207,7 @@ public class EmployeeService {
         Employee employee = findById(id);
         employee.setStatus(status);
         employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id));
     }
     
     public boolean isValidEmployeeId(String employeeId) {
@@ -238,6 +268,7 @@ public class EmployeeService {
         employee.setStatus(EmployeeStatus.ACTIVE);
         employee.setIsActive(true);
         employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employeeId));
         
         // Send activation email
         emailService.sendAccountActivationEmail(
@@ -247,8 +278,30 @@ public class EmployeeService {
         );
     }
     
-    public Page<Employee> searchEmployees(String keyword, Pageable pageable) {
-        return employeeRepository.searchEmployees(keyword, pageable);
+    /**
+     * schema.sql skips pg_trgm when the database user may not create extensions. Search then
+     * falls back to the unindexed LIKE query.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void detectTrigramSearch() {
+        trigramSearch = employeeRepository.isTrigramSearchAvailable();
+        if (!trigramSearch) {
+            logger.warn("pg_trgm or employees.search_text is missing; employee search falls back to unindexed LIKE");
+        }
+    }
+    
+    public Page<EmployeeSearchResult> searchEmployees(String keyword, Pageable pageable) {
+        String term = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        // Escape LIKE wildcards so a typed % or _ matches literally
+        String literal = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        if (!trigramSearch) {
+            return employeeRepository.searchEmployeesByLike("%" + literal + "%", pageable);
+        }
+        return employeeRepository.searchEmployees(term, literal + "%", "% " + literal + "%", "%" + literal + "%", pageable);
     }
     
     public long getTotalEmployeeCount() {
@@ -264,6 +317,8 @@ public class EmployeeService {
     }
     
     public Employee saveEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(saved.getId()));
+        return saved;
     }
 }
@@ -0,0 +1,203 @@
+package com.workzen.service;
+
+import com.workzen.entity.Employee;
+import com.workzen.entity.HolidayCalendar;
+import com.workzen.event.EmployeeChangedEvent;
+import com.workzen.repository.HolidayCalendarRepository;
+import com.workzen.repository.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Working-day arithmetic over holiday calendars. Each calendar year is compiled once into a
+ * bitset of working days plus a prefix sum over it, so counting working days between two dates
+ * costs one subtraction per calendar year spanned. Years are built lazily on first use.
+ */
+@Component
+@RequiredArgsConstructor
+public class HolidayCalendarCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(HolidayCalendarCache.class);
+
+    // Marks employees that resolve to the default calendar
+    private static final long NO_CALENDAR = 0L;
+
+    // Saturday and Sunday, used when no calendar has been set up at all
+    private static final int DEFAULT_WEEKEND_DAYS = 0b1100000;
+
+    private final HolidayCalendarRepository calendarRepository;
+    private final HolidayRepository holidayRepository;
+
+    // Replaced as a whole by reload, so lookups never mix calendars from before and after it
+    private volatile Snapshot snapshot;
+
+    private record YearKey(long calendarId, int year) {
+    }
+
+    // Employee assignments and compiled years are filled lazily and evicted in place
+    private record Snapshot(Map<Long, Integer> weekendDaysByCalendar, Map<Long, Long> calendarByEmployee,
+                            Map<YearKey, WorkingDayYear> years, long defaultCalendarId) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    public void reload() {
+        long fallback = NO_CALENDAR;
+        Map<Long, Integer> weekends = new HashMap<>();
+        for (HolidayCalendar calendar : calendarRepository.findAll()) {
+            weekends.put(calendar.getId(), calendar.getWeekendDays() != null ? calendar.getWeekendDays() : DEFAULT_WEEKEND_DAYS);
+            if (Boolean.TRUE.equals(calendar.getIsDefault())) {
+                fallback = calendar.getId();
+            }
+        }
+
+        Map<Long, Long> calendarByEmployee = new ConcurrentHashMap<>();
+        calendarRepository.findAllEmployeeCalendars().forEach(row ->
+                calendarByEmployee.put(row.getEmployeeId(), row.getCalendarId()));
+
+        snapshot = new Snapshot(Map.copyOf(weekends), calendarByEmployee, new ConcurrentHashMap<>(), fallback);
+        logger.info("Loaded {} holiday calendars and {} employee calendar assignments",
+                weekends.size(), calendarByEmployee.size());
+    }
+
+    /**
+     * Drops the compiled years of one calendar after its holidays changed.
+     */
+    public void invalidateCalendar(Long calendarId) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.years().keySet().removeIf(key -> key.calendarId() == calendarId);
+        }
+    }
+
+    public void evictEmployee(Long employeeId) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.calendarByEmployee().remove(employeeId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        evictEmployee(event.employeeId());
+    }
+
+    public boolean isWorkingDay(Employee employee, LocalDate date) {
+        Snapshot current = current();
+        return year(current, resolveCalendarId(current, employee.getId()), date.getYear()).isWorkingDay(date.getDayOfYear());
+    }
+
+    /**
+     * Working days from {@code startDate} to {@code endDate}, both inclusive.
+     */
+    public int workingDaysBetween(Employee employee, LocalDate startDate, LocalDate endDate) {
+        return workingDaysBetween(employee.getId(), startDate, endDate);
+    }
+
+    public int workingDaysBetween(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+        Snapshot current = current();
+        long calendarId = resolveCalendarId(current, employeeId);
+        int total = 0;
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            int from = year == startDate.getYear() ? startDate.getDayOfYear() : 1;
+            int to = year == endDate.getYear() ? endDate.getDayOfYear() : Year.of(year).length();
+            total += year(current, calendarId, year).count(from, to);
+        }
+        return total;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private long resolveCalendarId(Snapshot current, Long employeeId) {
+        Long calendarId = current.calendarByEmployee().get(employeeId);
+        if (calendarId == null) {
+            // Looked up outside the map so a slow query doesn't block other employees' entries
+            calendarId = calendarRepository.findEmployeeCalendar(employeeId)
+                    .map(HolidayCalendarRepository.EmployeeCalendar::getCalendarId)
+                    .orElse(NO_CALENDAR);
+            current.calendarByEmployee().putIfAbsent(employeeId, calendarId);
+        }
+        return calendarId != NO_CALENDAR && current.weekendDaysByCalendar().containsKey(calendarId)
+                ? calendarId : current.defaultCalendarId();
+    }
+
+    private WorkingDayYear year(Snapshot current, long calendarId, int year) {
+        YearKey key = new YearKey(calendarId, year);
+        WorkingDayYear compiled = current.years().get(key);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        // Built outside the map for the same reason; a racing thread may build the same year twice
+        int weekendDays = current.weekendDaysByCalendar().getOrDefault(calendarId, DEFAULT_WEEKEND_DAYS);
+        LocalDate first = LocalDate.of(year, 1, 1);
+        int length = Year.of(year).length();
+
+        BitSet working = new BitSet(length);
+        for (int day = 0; day < length; day++) {
+            int dayOfWeek = first.plusDays(day).getDayOfWeek().getValue() - 1;
+            if ((weekendDays & (1 << dayOfWeek)) == 0) {
+                working.set(day);
+            }
+        }
+        if (calendarId != NO_CALENDAR) {
+            holidayRepository.findDatesByCalendarIdAndDateBetween(calendarId, first, first.withDayOfYear(length))
+                    .forEach(holiday -> working.clear(holiday.getDayOfYear() - 1));
+        }
+        compiled = new WorkingDayYear(working, length);
+        WorkingDayYear raced = current.years().putIfAbsent(key, compiled);
+        return raced != null ? raced : compiled;
+    }
+
+    /**
+     * One calendar year: bit (dayOfYear - 1) is set for working days and
+     * prefix[n] holds the number of working days among the first n days.
+     */
+    private static final class WorkingDayYear {
+
+        private final BitSet working;
+        private final int[] prefix;
+
+        private WorkingDayYear(BitSet working, int length) {
+            this.working = working;
+            this.prefix = new int[length + 1];
+            for (int day = 0; day < length; day++) {
+                prefix[day + 1] = prefix[day] + (working.get(day) ? 1 : 0);
+            }
+        }
+
+        boolean isWorkingDay(int dayOfYear) {
+            return working.get(dayOfYear - 1);
+        }
+
+        int count(int fromDayOfYear, int toDayOfYear) {
+            return prefix[toDayOfYear] - prefix[fromDayOfYear - 1];
+        }
+    }
+}
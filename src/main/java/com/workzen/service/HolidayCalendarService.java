@@ -0,0 +1,144 @@
+package com.workzen.service;
+
+import com.workzen.entity.Employee;
+import com.workzen.entity.Holiday;
+import com.workzen.entity.HolidayCalendar;
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.repository.HolidayCalendarRepository;
+import com.workzen.repository.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class HolidayCalendarService {
+    
+    private final HolidayCalendarRepository calendarRepository;
+    private final HolidayRepository holidayRepository;
+    private final EmployeeRepository employeeRepository;
+    private final HolidayCalendarCache holidayCalendarCache;
+    
+    public HolidayCalendar createCalendar(HolidayCalendar calendar) {
+        if (calendarRepository.existsByName(calendar.getName())) {
+            throw new RuntimeException("Holiday calendar with name '" + calendar.getName() + "' already exists");
+        }
+        validateWeekendDays(calendar.getWeekendDays());
+        HolidayCalendar saved = calendarRepository.save(calendar);
+        makeOnlyDefault(saved);
+        reloadCacheAfterCommit();
+        return saved;
+    }
+    
+    public HolidayCalendar updateCalendar(Long id, HolidayCalendar calendarDetails) {
+        HolidayCalendar calendar = findById(id);
+        
+        if (!calendar.getName().equals(calendarDetails.getName()) &&
+            calendarRepository.existsByName(calendarDetails.getName())) {
+            throw new RuntimeException("Holiday calendar with name '" + calendarDetails.getName() + "' already exists");
+        }
+        validateWeekendDays(calendarDetails.getWeekendDays());
+        
+        calendar.setName(calendarDetails.getName());
+        calendar.setLocation(calendarDetails.getLocation());
+        calendar.setWeekendDays(calendarDetails.getWeekendDays());
+        calendar.setIsDefault(calendarDetails.getIsDefault());
+        
+        HolidayCalendar saved = calendarRepository.save(calendar);
+        makeOnlyDefault(saved);
+        reloadCacheAfterCommit();
+        return saved;
+    }
+    
+    public HolidayCalendar findById(Long id) {
+        return calendarRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Holiday calendar not found with id: " + id));
+    }
+    
+    public List<HolidayCalendar> findAll() {
+        return calendarRepository.findAll();
+    }
+    
+    public Holiday addHoliday(Long calendarId, LocalDate date, String name) {
+        HolidayCalendar calendar = findById(calendarId);
+        if (holidayRepository.existsByCalendarIdAndDate(calendarId, date)) {
+            throw new RuntimeException("A holiday already exists on " + date + " in this calendar");
+        }
+        Holiday holiday = Holiday.builder()
+                .calendar(calendar)
+                .date(date)
+                .name(name)
+                .build();
+        Holiday saved = holidayRepository.save(holiday);
+        invalidateCalendarAfterCommit(calendarId);
+        return saved;
+    }
+    
+    public void deleteHoliday(Long holidayId) {
+        Holiday holiday = holidayRepository.findById(holidayId)
+                .orElseThrow(() -> new RuntimeException("Holiday not found with id: " + holidayId));
+        Long calendarId = holiday.getCalendar().getId();
+        holidayRepository.delete(holiday);
+        invalidateCalendarAfterCommit(calendarId);
+    }
+    
+    public List<Holiday> getHolidays(Long calendarId, int year) {
+        return holidayRepository.findByCalendarIdAndDateBetweenOrderByDate(
+                calendarId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+    
+    public void assignToEmployee(Long employeeId, Long calendarId) {
+        Employee employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new RuntimeException("Employee not found with id: " + employeeId));
+        employee.setHolidayCalendar(calendarId != null ? findById(calendarId) : null);
+        employeeRepository.save(employee);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holidayCalendarCache.evictEmployee(employeeId);
+            }
+        });
+    }
+    
+    private void makeOnlyDefault(HolidayCalendar calendar) {
+        if (!Boolean.TRUE.equals(calendar.getIsDefault())) {
+            return;
+        }
+        calendarRepository.findAll().stream()
+                .filter(other -> !other.getId().equals(calendar.getId()) && Boolean.TRUE.equals(other.getIsDefault()))
+                .forEach(other -> {
+                    other.setIsDefault(false);
+                    calendarRepository.save(other);
+                });
+    }
+    
+    private void validateWeekendDays(Integer weekendDays) {
+        if (weekendDays != null && (weekendDays < 0 || weekendDays >= 0b1111111)) {
+            throw new RuntimeException("Weekend days must leave at least one working day in the week");
+        }
+    }
+    
+    private void reloadCacheAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holidayCalendarCache.reload();
+            }
+        });
+    }
+    
+    private void invalidateCalendarAfterCommit(Long calendarId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holidayCalendarCache.invalidateCalendar(calendarId);
+            }
+        });
+    }
+}
@@ -1,66 +1,115 @@
 package com.workzen.service;
 
+import com.workzen.dto.KeysetPage;
+import com.workzen.dto.LeaveApplicationLogDTO;
+import com.workzen.dto.LeaveApplicationSummaryDTO;
 import com.workzen.entity.Employee;
 import com.workzen.entity.LeaveApplication;
-import com.workzen.entity.LeaveApplicationLog;
+import com.workzen.entity.LeaveBalance;
 import com.workzen.entity.LeaveType;
 import com.workzen.enums.LeaveStatus;
 import com.workzen.repository.LeaveApplicationRepository;
 import com.workzen.repository.LeaveApplicationLogRepository;
+import com.workzen.util.LeaveUnits;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class LeaveApplicationService {
     
+    private static final Logger logger = LoggerFactory.getLogger(LeaveApplicationService.class);
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private static final String OVERLAP_CONSTRAINT = "leave_applications_no_full_day_overlap";
+    private static final String OVERLAP_MESSAGE = "Leave application overlaps with an existing pending or approved leave";
+    
     private final LeaveApplicationRepository leaveApplicationRepository;
     private final LeaveBalanceService leaveBalanceService;
     private final LeaveApplicationLogRepository leaveApplicationLogRepository;
+    private final LeaveAuditLogWriter leaveAuditLogWriter;
+    private final HolidayCalendarCache holidayCalendarCache;
+    private final LeaveApprovalWorkflowService approvalWorkflowService;
+    
+    /**
+     * schema.sql only warns when btree_gist can't be installed or existing overlapping applications
+     * keep it from creating the exclusion constraint, so check at startup. Without the constraint
+     * the overlap check in applyLeave is all there is, and concurrent submissions can overlap.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void verifyOverlapConstraint() {
+        if (!leaveApplicationRepository.isOverlapConstraintPresent()) {
+            logger.error("Constraint {} is missing, so concurrent leave applications can overlap. "
+                    + "Resolve the overlapping pending/approved applications and restart to create it.", OVERLAP_CONSTRAINT);
+        }
+    }
     
     public LeaveApplication applyLeave(Employee employee, LeaveType leaveType, 
                                         LocalDate startDate, LocalDate endDate, 
-                                        String reason, Boolean isHalfDay) {
+                                        String reason, Boolean isHalfDay, Double hours) {
         // Validate dates
         if (endDate.isBefore(startDate)) {
             throw new RuntimeException("End date cannot be before start date");
         }
         
-        // Check for overlapping leaves
-        List<LeaveApplication> overlappingLeaves = leaveApplicationRepository
-                .findOverlappingLeaves(employee, startDate, endDate);
-        if (!overlappingLeaves.isEmpty()) {
-            throw new RuntimeException("Leave application overlaps with existing approved leave");
+        boolean halfDay = Boolean.TRUE.equals(isHalfDay);
+        if (halfDay && hours != null) {
+            throw new RuntimeException("Apply for either a half day or a number of hours, not both");
         }
         
-        // Calculate number of days
-        Double numberOfDays = (double) ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        if (isHalfDay != null && isHalfDay) {
-            numberOfDays = 0.5;
+        // Count working days only - weekends and holidays in the employee's calendar are free
+        int workingDays = holidayCalendarCache.workingDaysBetween(employee, startDate, endDate);
+        if (workingDays == 0) {
+            throw new RuntimeException("Selected dates fall entirely on weekends or holidays");
+        }
+        long durationMinutes = durationMinutes(workingDays, halfDay, hours);
+        boolean partialDay = durationMinutes < LeaveUnits.MINUTES_PER_DAY;
+        if (partialDay && !startDate.equals(endDate)) {
+            throw new RuntimeException("Half-day and hourly leave must start and end on the same date");
+        }
+        
+        // Check for overlapping pending or approved leaves. Partial days on the same date may share
+        // it up to a full day; the exclusion constraint only covers full-day leave, so the check
+        // runs under a per-employee lock to keep concurrent submissions from both passing it.
+        leaveApplicationRepository.lockEmployeeForApplication(employee.getId());
+        if (partialDay) {
+            long booked = leaveApplicationRepository.sumBookedMinutesOn(employee.getId(), startDate);
+            if (booked + durationMinutes > LeaveUnits.MINUTES_PER_DAY) {
+                throw new RuntimeException(OVERLAP_MESSAGE + "; at most "
+                        + LeaveUnits.toHours(LeaveUnits.MINUTES_PER_DAY - booked) + " hours are left on " + startDate);
+            }
+        } else if (leaveApplicationRepository.existsOverlappingLeave(employee.getId(), startDate, endDate)) {
+            throw new RuntimeException(OVERLAP_MESSAGE);
         }
         
         // Check leave balance
         Integer year = startDate.getYear();
-        try {
-            var leaveBalance = leaveBalanceService.getLeaveBalance(employee, leaveType, year);
-            if (leaveBalance.getBalance() < numberOfDays) {
-                throw new RuntimeException("Insufficient leave balance. Available: " + 
-                                         leaveBalance.getBalance() + " days");
-            }
-        } catch (RuntimeException e) {
-            // Initialize leave balance if not exists
-            leaveBalanceService.initializeLeaveBalancesForEmployee(employee, year);
+        LeaveBalance leaveBalance = leaveBalanceService.findOpenLeaveBalance(employee, leaveType, year)
+                .orElseGet(() -> {
+                    // Only employees missed by the yearly allocation job end up here
+                    leaveBalanceService.initializeLeaveBalancesForEmployee(employee, year);
+                    return leaveBalanceService.getLeaveBalance(employee, leaveType, year);
+                });
+        if (leaveBalance.getBalanceMinutes() < durationMinutes) {
+            throw new RuntimeException("Insufficient leave balance. Available: " + 
+                                     leaveBalance.getBalance() + " days");
         }
         
         LeaveApplication leaveApplication = LeaveApplication.builder()
@@ -68,20 +117,52 @@ public class LeaveApplicationService {
                 .leaveType(leaveType)
                 .startDate(startDate)
                 .endDate(endDate)
-                .numberOfDays(numberOfDays)
+                .durationMinutes(durationMinutes)
                 .reason(reason)
                 .status(LeaveStatus.PENDING)
                 .isHalfDay(isHalfDay != null ? isHalfDay : false)
                 .build();
         
-        LeaveApplication saved = leaveApplicationRepository.save(leaveApplication);
+        LeaveApplication saved;
+        try {
+            saved = leaveApplicationRepository.saveAndFlush(leaveApplication);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            // A concurrent application for the same dates won the race to the exclusion constraint
+            throw new RuntimeException(OVERLAP_MESSAGE);
+        }
         
         // Log the submission
         createLog(saved, null, LeaveStatus.PENDING, employee, "Leave application submitted", "SUBMITTED");
+        approvalWorkflowService.startWorkflow(saved);
         
         return saved;
     }
     
+    /**
+     * Half-day and hourly leave is taken on a single working day; anything longer is whole
+     * working days.
+     */
+    static long durationMinutes(int workingDays, boolean halfDay, Double hours) {
+        if (!halfDay && hours == null) {
+            return workingDays * LeaveUnits.MINUTES_PER_DAY;
+        }
+        if (workingDays != 1) {
+            throw new RuntimeException("Half-day and hourly leave must be for a single working day");
+        }
+        if (halfDay) {
+            return LeaveUnits.HALF_DAY;
+        }
+        long minutes = LeaveUnits.fromHours(hours);
+        if (minutes <= 0 || minutes > LeaveUnits.MINUTES_PER_DAY) {
+            throw new RuntimeException("Hours must be more than 0 and at most "
+                    + LeaveUnits.MINUTES_PER_DAY / 60 + " per day");
+        }
+        return minutes;
+    }
+    
     public LeaveApplication approveLeave(Long leaveId, Employee approver) {
         LeaveApplication leaveApplication = findById(leaveId);
         
@@ -91,12 +172,22 @@ public class LeaveApplicationService {
         
         LeaveStatus previousStatus = leaveApplication.getStatus();
         
+        // Intermediate levels only move the application to the next approver's queue
+        if (!approvalWorkflowService.approve(leaveApplication, approver, null)) {
+            createLog(leaveApplication, previousStatus, LeaveStatus.PENDING, approver,
+                     "Approved by " + approver.getFirstName() + " " + approver.getLastName() + ", forwarded to the next approver",
+                     "STEP_APPROVED");
+            return leaveApplication;
+        }
+        
         // Deduct from leave balance
         leaveBalanceService.deductLeaveBalance(
                 leaveApplication.getEmployee(),
                 leaveApplication.getLeaveType(),
                 leaveApplication.getStartDate().getYear(),
-                leaveApplication.getNumberOfDays()
+                leaveApplication.getDurationMinutes(),
+                leaveApplication.getId(),
+                approver.getEmail()
         );
         
         leaveApplication.setStatus(LeaveStatus.APPROVED);
@@ -121,6 +212,7 @@ public class LeaveApplicationService {
         }
         
         LeaveStatus previousStatus = leaveApplication.getStatus();
+        approvalWorkflowService.reject(leaveApplication, approver, rejectionReason);
         
         leaveApplication.setStatus(LeaveStatus.REJECTED);
         leaveApplication.setApprovedBy(approver);
@@ -156,10 +248,13 @@ public class LeaveApplicationService {
                     leaveApplication.getEmployee(),
                     leaveApplication.getLeaveType(),
                     leaveApplication.getStartDate().getYear(),
-                    leaveApplication.getNumberOfDays()
+                    leaveApplication.getDurationMinutes(),
+                    leaveApplication.getId(),
+                    employee.getEmail()
             );
         }
         
+        approvalWorkflowService.cancel(leaveApplication);
         leaveApplication.setStatus(LeaveStatus.CANCELLED);
         LeaveApplication saved = leaveApplicationRepository.save(leaveApplication);
         
@@ -194,56 +289,99 @@ public class LeaveApplicationService {
     
     public List<LeaveApplication> getPendingApprovalsForManager(Employee manager) {
         // If the user is ADMIN or HR_MANAGER, show all pending leaves
-        if (manager.getRole().name().equals("ADMIN") || manager.getRole().name().equals("HR_MANAGER")) {
+        if (LeaveApprovalWorkflowService.isHr(manager)) {
             return leaveApplicationRepository.findByStatusOrderByCreatedAtDesc(LeaveStatus.PENDING);
         }
-        // Otherwise, show only direct reports' pending leaves
-        return leaveApplicationRepository.findPendingApplicationsByManager(manager);
+        // Otherwise, show the leaves whose current approval step is theirs
+        return leaveApplicationRepository.findPendingApplicationsByApprover(manager.getId());
+    }
+    
+    /**
+     * One page of the approval inbox, newest first. Pass the previous page's next cursor
+     * (or nulls for the first page); the cost per page doesn't grow with how deep the user scrolls.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<LeaveApplicationSummaryDTO> getApprovalInbox(Employee manager, LocalDateTime afterCreatedAt,
+                                                                   Long afterId, int size) {
+        if ((afterCreatedAt == null) != (afterId == null)) {
+            throw new RuntimeException("afterCreatedAt and afterId must be given together");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        List<LeaveApplicationSummaryDTO> rows;
+        if (LeaveApprovalWorkflowService.isHr(manager)) {
+            rows = afterId == null
+                    ? leaveApplicationRepository.findSummariesByStatus(LeaveStatus.PENDING, limit)
+                    : leaveApplicationRepository.findSummariesByStatusBefore(LeaveStatus.PENDING, afterCreatedAt, afterId, limit);
+        } else {
+            rows = afterId == null
+                    ? leaveApplicationRepository.findSummariesAwaitingApprover(LeaveStatus.PENDING, manager.getId(), limit)
+                    : leaveApplicationRepository.findSummariesAwaitingApproverBefore(LeaveStatus.PENDING, manager.getId(),
+                            afterCreatedAt, afterId, limit);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        if (!hasMore) {
+            return new KeysetPage<>(rows, null, null, false);
+        }
+        List<LeaveApplicationSummaryDTO> content = rows.subList(0, pageSize);
+        LeaveApplicationSummaryDTO last = content.get(pageSize - 1);
+        return new KeysetPage<>(content, last.getCreatedAt(), last.getId(), true);
     }
     
-    public List<LeaveApplication> getLeavesByStatus(LeaveStatus status) {
-        return leaveApplicationRepository.findByStatusOrderByCreatedAtDesc(status);
+    @Transactional(readOnly = true)
+    public long countPendingApprovals(Employee manager) {
+        if (LeaveApprovalWorkflowService.isHr(manager)) {
+            return leaveApplicationRepository.countByStatus(LeaveStatus.PENDING);
+        }
+        return leaveApplicationRepository.countAwaitingApprover(LeaveStatus.PENDING, manager.getId());
     }
     
-    public List<LeaveApplication> getAllLeaveRequests() {
-        return leaveApplicationRepository.findAll();
+    /**
+     * One page of leave applications for the HR list, newest first. Every filter is optional;
+     * the date range matches leaves overlapping it. Rows are summaries read in a single query,
+     * and the requested sort is ignored so the (status, created_at, id) index keeps serving it.
+     */
+    @Transactional(readOnly = true)
+    public Page<LeaveApplicationSummaryDTO> searchLeaveApplications(LeaveStatus status, Long departmentId,
+                                                                    Long leaveTypeId, LocalDate fromDate,
+                                                                    LocalDate toDate, Pageable pageable) {
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            throw new RuntimeException("End date cannot be before start date");
+        }
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.max(1, Math.min(pageable.getPageSize(), MAX_PAGE_SIZE)));
+        return leaveApplicationRepository.findSummaries(status, departmentId, leaveTypeId, fromDate, toDate, page);
     }
     
-    public List<Map<String, Object>> getLeaveApplicationLogs(Long leaveApplicationId) {
-        List<LeaveApplicationLog> logs = leaveApplicationLogRepository.findByLeaveApplicationIdOrderByChangedAtDesc(leaveApplicationId);
-        
-        return logs.stream().map(log -> {
-            Map<String, Object> logMap = new HashMap<>();
-            logMap.put("id", log.getId());
-            logMap.put("previousStatus", log.getPreviousStatus());
-            logMap.put("newStatus", log.getNewStatus());
-            logMap.put("actionType", log.getActionType());
-            logMap.put("remarks", log.getRemarks());
-            logMap.put("changedAt", log.getChangedAt());
-            
-            if (log.getChangedBy() != null) {
-                Map<String, Object> changedBy = new HashMap<>();
-                changedBy.put("id", log.getChangedBy().getId());
-                changedBy.put("firstName", log.getChangedBy().getFirstName());
-                changedBy.put("lastName", log.getChangedBy().getLastName());
-                changedBy.put("email", log.getChangedBy().getEmail());
-                logMap.put("changedBy", changedBy);
+    @Transactional(readOnly = true)
+    public List<LeaveApplicationLogDTO> getLeaveApplicationLogs(Long leaveApplicationId) {
+        return leaveApplicationLogRepository.findDtosByLeaveApplicationId(leaveApplicationId, Pageable.unpaged())
+                .getContent();
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<LeaveApplicationLogDTO> getLeaveApplicationLogs(Long leaveApplicationId, Pageable pageable) {
+        return leaveApplicationLogRepository.findDtosByLeaveApplicationId(leaveApplicationId, pageable);
+    }
+    
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
             }
-            
-            return logMap;
-        }).collect(Collectors.toList());
+        }
+        // Older drivers/dialects may not extract the name of an exclusion constraint
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
     }
     
     private void createLog(LeaveApplication leaveApplication, LeaveStatus previousStatus, 
                           LeaveStatus newStatus, Employee changedBy, String remarks, String actionType) {
-        LeaveApplicationLog log = new LeaveApplicationLog();
-        log.setLeaveApplication(leaveApplication);
-        log.setPreviousStatus(previousStatus);
-        log.setNewStatus(newStatus);
-        log.setChangedBy(changedBy);
-        log.setRemarks(remarks);
-        log.setActionType(actionType);
-        
-        leaveApplicationLogRepository.save(log);
+        // Written to the outbox at commit and relayed to leave_application_logs asynchronously
+        leaveAuditLogWriter.record(leaveApplication.getId(), previousStatus, newStatus,
+                changedBy != null ? changedBy.getId() : null, remarks, actionType);
     }
 }
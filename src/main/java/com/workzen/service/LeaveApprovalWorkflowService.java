@@ -0,0 +1,203 @@
+package com.workzen.service;
+
+import com.workzen.dto.LeaveApprovalStepDTO;
+import com.workzen.entity.Employee;
+import com.workzen.entity.LeaveApplication;
+import com.workzen.entity.LeaveApprovalStep;
+import com.workzen.enums.ApprovalLevel;
+import com.workzen.enums.ApprovalStepStatus;
+import com.workzen.enums.Role;
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.repository.LeaveApprovalStepRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Multi-level leave approval. The chain (leave.approval.levels, by default manager, then
+ * department head, then HR) is resolved from OrgHierarchyCache when the application is
+ * submitted and stored as steps. Levels without an available approver, or whose approver
+ * already appears earlier in the chain or is the applicant, are left out.
+ *
+ * Only the current step's approver can decide it. ADMIN and HR_MANAGER can decide any step,
+ * and their decision is final: the remaining steps are skipped. Applications submitted before
+ * the workflow existed have no steps and are decided by HR directly.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class LeaveApprovalWorkflowService {
+
+    public static final String OWN_APPLICATION_MESSAGE = "You cannot decide your own leave application";
+
+    private final LeaveApprovalStepRepository stepRepository;
+    private final EmployeeRepository employeeRepository;
+    private final OrgHierarchyCache orgHierarchyCache;
+
+    @Value("${leave.approval.levels:MANAGER,DEPARTMENT_HEAD,HR}")
+    private String levels;
+
+    public void startWorkflow(LeaveApplication application) {
+        Long applicantId = application.getEmployee().getId();
+        Set<Long> seen = new HashSet<>();
+        seen.add(applicantId);
+
+        List<LeaveApprovalStep> steps = new ArrayList<>();
+        for (ApprovalLevel level : configuredLevels()) {
+            Long approverId = null;
+            if (level != ApprovalLevel.HR) {
+                Optional<Long> resolved = level == ApprovalLevel.MANAGER
+                        ? orgHierarchyCache.findManager(applicantId)
+                        : orgHierarchyCache.findDepartmentHead(applicantId);
+                if (resolved.isEmpty() || !seen.add(resolved.get())) {
+                    continue;
+                }
+                approverId = resolved.get();
+            }
+            steps.add(newStep(application, steps.size() + 1, level, approverId));
+        }
+        if (steps.isEmpty()) {
+            // Nobody in the configured chain can approve; fall back to HR so the application isn't stuck
+            steps.add(newStep(application, 1, ApprovalLevel.HR, null));
+        }
+        steps.get(0).setStatus(ApprovalStepStatus.PENDING);
+        stepRepository.saveAll(steps);
+    }
+
+    /**
+     * Records the approver's approval of the current step.
+     *
+     * @return true when this was the last step and the application is now fully approved
+     */
+    public boolean approve(LeaveApplication application, Employee approver, String remarks) {
+        List<LeaveApprovalStep> steps = stepRepository.findByLeaveApplicationIdOrderByStepOrderAsc(application.getId());
+        LeaveApprovalStep current = currentStep(steps);
+        checkCanDecide(application, current, approver);
+        if (current == null) {
+            return true;
+        }
+
+        decide(current, ApprovalStepStatus.APPROVED, approver, remarks);
+        boolean isFinal = true;
+        for (LeaveApprovalStep step : steps) {
+            if (step.getStatus() != ApprovalStepStatus.WAITING) {
+                continue;
+            }
+            if (isHr(approver)) {
+                step.setStatus(ApprovalStepStatus.SKIPPED);
+            } else if (isFinal) {
+                step.setStatus(ApprovalStepStatus.PENDING);
+                isFinal = false;
+            }
+        }
+        stepRepository.saveAll(steps);
+        return isFinal;
+    }
+
+    public void reject(LeaveApplication application, Employee approver, String remarks) {
+        List<LeaveApprovalStep> steps = stepRepository.findByLeaveApplicationIdOrderByStepOrderAsc(application.getId());
+        LeaveApprovalStep current = currentStep(steps);
+        checkCanDecide(application, current, approver);
+        if (current == null) {
+            return;
+        }
+
+        decide(current, ApprovalStepStatus.REJECTED, approver, remarks);
+        steps.stream()
+                .filter(step -> step.getStatus() == ApprovalStepStatus.WAITING)
+                .forEach(step -> step.setStatus(ApprovalStepStatus.SKIPPED));
+        stepRepository.saveAll(steps);
+    }
+
+    public void cancel(LeaveApplication application) {
+        List<LeaveApprovalStep> steps = stepRepository.findByLeaveApplicationIdOrderByStepOrderAsc(application.getId());
+        steps.stream()
+                .filter(step -> step.getStatus() == ApprovalStepStatus.WAITING || step.getStatus() == ApprovalStepStatus.PENDING)
+                .forEach(step -> step.setStatus(ApprovalStepStatus.CANCELLED));
+        stepRepository.saveAll(steps);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaveApprovalStepDTO> getSteps(Long leaveApplicationId) {
+        return stepRepository.findDtosByLeaveApplicationId(leaveApplicationId);
+    }
+
+    /**
+     * Only the applicant, an approver of one of its steps, or HR may look at an application's details.
+     */
+    @Transactional(readOnly = true)
+    public void checkCanView(LeaveApplication application, Employee viewer) {
+        if (isHr(viewer) || application.getEmployee().getId().equals(viewer.getId())) {
+            return;
+        }
+        if (!stepRepository.existsByLeaveApplicationIdAndApproverId(application.getId(), viewer.getId())) {
+            throw new RuntimeException("You can only view leave applications you applied for or approve");
+        }
+    }
+
+    public static boolean isHr(Employee employee) {
+        return employee.getRole() == Role.ADMIN || employee.getRole() == Role.HR_MANAGER;
+    }
+
+    /**
+     * Nobody but an admin may approve or reject their own application.
+     */
+    public static boolean isBarredFromOwnApplication(LeaveApplication application, Employee approver) {
+        return application.getEmployee().getId().equals(approver.getId()) && approver.getRole() != Role.ADMIN;
+    }
+
+    private void checkCanDecide(LeaveApplication application, LeaveApprovalStep current, Employee approver) {
+        if (isBarredFromOwnApplication(application, approver)) {
+            throw new RuntimeException(OWN_APPLICATION_MESSAGE);
+        }
+        if (isHr(approver)) {
+            return;
+        }
+        if (current == null || current.getLevel() == ApprovalLevel.HR
+                || current.getApprover() == null || !current.getApprover().getId().equals(approver.getId())) {
+            throw new RuntimeException("This leave application is not awaiting your approval");
+        }
+    }
+
+    private void decide(LeaveApprovalStep step, ApprovalStepStatus status, Employee approver, String remarks) {
+        step.setStatus(status);
+        step.setDecidedBy(approver);
+        step.setDecidedAt(LocalDateTime.now());
+        step.setRemarks(remarks);
+    }
+
+    private LeaveApprovalStep newStep(LeaveApplication application, int order, ApprovalLevel level, Long approverId) {
+        return LeaveApprovalStep.builder()
+                .leaveApplication(application)
+                .stepOrder(order)
+                .level(level)
+                .approver(approverId != null ? employeeRepository.getReferenceById(approverId) : null)
+                .status(ApprovalStepStatus.WAITING)
+                .build();
+    }
+
+    private List<ApprovalLevel> configuredLevels() {
+        return Arrays.stream(levels.split(","))
+                .map(String::trim)
+                .filter(level -> !level.isEmpty())
+                .map(ApprovalLevel::valueOf)
+                .distinct()
+                .toList();
+    }
+
+    private static LeaveApprovalStep currentStep(List<LeaveApprovalStep> steps) {
+        return steps.stream()
+                .filter(step -> step.getStatus() == ApprovalStepStatus.PENDING)
+                .findFirst()
+                .orElse(null);
+    }
+}
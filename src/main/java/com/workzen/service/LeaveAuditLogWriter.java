@@ -0,0 +1,85 @@
+package com.workzen.service;
+
+import com.workzen.enums.LeaveStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects leave audit log rows for the current transaction and writes them to the
+ * leave_log_outbox table as one JDBC batch just before commit. LeaveAuditLogRelayJob
+ * moves them into leave_application_logs afterwards, off the request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveAuditLogWriter {
+
+    static final String INSERT_OUTBOX =
+            "INSERT INTO leave_log_outbox (leave_application_id, previous_status, new_status, changed_by_id, " +
+            "remarks, action_type, changed_at) " +
+            "VALUES (:leaveApplicationId, :previousStatus, :newStatus, :changedById, :remarks, :actionType, :changedAt)";
+
+    // Column limits of leave_log_outbox and leave_application_logs; longer values would fail the
+    // state change's own transaction, or later the relay
+    private static final int MAX_REMARKS_LENGTH = 1000;
+    private static final int MAX_ACTION_TYPE_LENGTH = 50;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void record(Long leaveApplicationId, LeaveStatus previousStatus, LeaveStatus newStatus,
+                       Long changedById, String remarks, String actionType) {
+        SqlParameterSource row = row(leaveApplicationId, previousStatus, newStatus, changedById, remarks, actionType);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(INSERT_OUTBOX, row);
+            return;
+        }
+        pendingRows().add(row);
+    }
+
+    public static SqlParameterSource row(Long leaveApplicationId, LeaveStatus previousStatus, LeaveStatus newStatus,
+                                         Long changedById, String remarks, String actionType) {
+        return new MapSqlParameterSource()
+                .addValue("leaveApplicationId", leaveApplicationId)
+                .addValue("previousStatus", previousStatus != null ? previousStatus.name() : null, Types.VARCHAR)
+                .addValue("newStatus", newStatus.name())
+                .addValue("changedById", changedById, Types.BIGINT)
+                .addValue("remarks", truncate(remarks, MAX_REMARKS_LENGTH), Types.VARCHAR)
+                .addValue("actionType", truncate(actionType, MAX_ACTION_TYPE_LENGTH), Types.VARCHAR)
+                .addValue("changedAt", LocalDateTime.now());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SqlParameterSource> pendingRows() {
+        List<SqlParameterSource> rows = (List<SqlParameterSource>) TransactionSynchronizationManager.getResource(this);
+        if (rows != null) {
+            return rows;
+        }
+        List<SqlParameterSource> buffer = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, buffer);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                jdbcTemplate.batchUpdate(INSERT_OUTBOX, buffer.toArray(SqlParameterSource[]::new));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(LeaveAuditLogWriter.this);
+            }
+        });
+        return buffer;
+    }
+}
@@ -2,15 +2,22 @@ package com.workzen.service;
 
 import com.workzen.entity.Employee;
 import com.workzen.entity.LeaveBalance;
+import com.workzen.entity.LeaveLedgerEntry;
 import com.workzen.entity.LeaveType;
+import com.workzen.enums.LeaveLedgerEntryType;
 import com.workzen.repository.LeaveBalanceRepository;
+import com.workzen.repository.LeaveLedgerEntryRepository;
+import com.workzen.util.LeaveUnits;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -18,54 +25,78 @@ import java.util.List;
 public class LeaveBalanceService {
     
     private final LeaveBalanceRepository leaveBalanceRepository;
-    private final LeaveTypeService leaveTypeService;
+    private final LeaveLedgerEntryRepository leaveLedgerEntryRepository;
     
-    public LeaveBalance createLeaveBalance(Employee employee, LeaveType leaveType, Integer year, Double totalAllocated) {
+    @Value("${leave.allocation.default-days:20}")
+    private double defaultAllocation;
+    
+    public LeaveBalance createLeaveBalance(Employee employee, LeaveType leaveType, Integer year, Double totalAllocated,
+                                           String actor) {
         if (leaveBalanceRepository.existsByEmployeeAndLeaveTypeAndYear(employee, leaveType, year)) {
             throw new RuntimeException("Leave balance already exists for this employee, leave type, and year");
         }
         
+        long allocatedMinutes = LeaveUnits.fromDays(totalAllocated);
         LeaveBalance leaveBalance = LeaveBalance.builder()
                 .employee(employee)
                 .leaveType(leaveType)
                 .year(year)
-                .totalAllocated(totalAllocated)
-                .used(0.0)
-                .balance(totalAllocated)
+                .allocatedMinutes(allocatedMinutes)
+                .usedMinutes(0L)
+                .balanceMinutes(allocatedMinutes)
                 .build();
         
-        return leaveBalanceRepository.save(leaveBalance);
+        LeaveBalance saved = leaveBalanceRepository.save(leaveBalance);
+        recordEntry(saved, LeaveLedgerEntryType.ALLOCATION, allocatedMinutes, null, "Initial allocation", actor);
+        return saved;
     }
     
-    public LeaveBalance updateLeaveBalance(Long id, Double totalAllocated) {
-        LeaveBalance leaveBalance = findById(id);
-        leaveBalance.setTotalAllocated(totalAllocated);
-        leaveBalance.setBalance(totalAllocated - leaveBalance.getUsed());
-        return leaveBalanceRepository.save(leaveBalance);
+    public LeaveBalance updateLeaveBalance(Long id, Double totalAllocated, String actor) {
+        if (leaveBalanceRepository.reallocate(id, LeaveUnits.fromDays(totalAllocated), actor) == 0) {
+            throw new RuntimeException("Leave balance not found with id: " + id);
+        }
+        return findById(id);
     }
     
-    public void deductLeaveBalance(Employee employee, LeaveType leaveType, Integer year, Double days) {
-        LeaveBalance leaveBalance = leaveBalanceRepository
-                .findByEmployeeAndLeaveTypeAndYear(employee, leaveType, year)
-                .orElseThrow(() -> new RuntimeException("Leave balance not found"));
-        
-        if (leaveBalance.getBalance() < days) {
-            throw new RuntimeException("Insufficient leave balance. Available: " + leaveBalance.getBalance() + ", Requested: " + days);
+    public void deductLeaveBalance(Employee employee, LeaveType leaveType, Integer year, long minutes,
+                                   Long leaveApplicationId, String actor) {
+        int updated = leaveBalanceRepository.deductIfSufficient(employee.getId(), leaveType.getId(), year, minutes,
+                leaveApplicationId, "Leave approved", actor);
+        if (updated == 0) {
+            // Only the failure path pays for a read, to build a useful message
+            LeaveBalance leaveBalance = findOpenLeaveBalance(employee, leaveType, year)
+                    .orElseThrow(() -> new RuntimeException("Leave balance not found"));
+            throw new RuntimeException("Insufficient leave balance. Available: " + leaveBalance.getBalance() + ", Requested: "
+                    + LeaveUnits.toDays(minutes));
         }
-        
-        leaveBalance.setUsed(leaveBalance.getUsed() + days);
-        leaveBalance.setBalance(leaveBalance.getBalance() - days);
-        leaveBalanceRepository.save(leaveBalance);
     }
     
-    public void restoreLeaveBalance(Employee employee, LeaveType leaveType, Integer year, Double days) {
-        LeaveBalance leaveBalance = leaveBalanceRepository
-                .findByEmployeeAndLeaveTypeAndYear(employee, leaveType, year)
-                .orElseThrow(() -> new RuntimeException("Leave balance not found"));
-        
-        leaveBalance.setUsed(leaveBalance.getUsed() - days);
-        leaveBalance.setBalance(leaveBalance.getBalance() + days);
-        leaveBalanceRepository.save(leaveBalance);
+    public void restoreLeaveBalance(Employee employee, LeaveType leaveType, Integer year, long minutes,
+                                    Long leaveApplicationId, String actor) {
+        int updated = leaveBalanceRepository.restore(employee.getId(), leaveType.getId(), year, minutes,
+                leaveApplicationId, "Approved leave cancelled", actor);
+        if (updated == 0) {
+            throw new RuntimeException("Leave balance not found");
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<LeaveLedgerEntry> getLedger(Long leaveBalanceId) {
+        return leaveLedgerEntryRepository.findByLeaveBalanceIdOrderByIdAsc(leaveBalanceId);
+    }
+    
+    private void recordEntry(LeaveBalance balance, LeaveLedgerEntryType type, long minutes,
+                             Long leaveApplicationId, String remarks, String actor) {
+        LeaveLedgerEntry entry = new LeaveLedgerEntry();
+        entry.setLeaveBalanceId(balance.getId());
+        entry.setEntryType(type);
+        entry.setMinutes(minutes);
+        entry.setBalanceAfterMinutes(balance.getBalanceMinutes());
+        entry.setLeaveApplicationId(leaveApplicationId);
+        entry.setRemarks(remarks);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setCreatedBy(actor);
+        leaveLedgerEntryRepository.save(entry);
     }
     
     public LeaveBalance findById(Long id) {
@@ -73,6 +104,22 @@ public class LeaveBalanceService {
                 .orElseThrow(() -> new RuntimeException("Leave balance not found with id: " + id));
     }
     
+    public Optional<LeaveBalance> findLeaveBalance(Employee employee, LeaveType leaveType, Integer year) {
+        return leaveBalanceRepository.findByEmployeeAndLeaveTypeAndYear(employee, leaveType, year);
+    }
+    
+    /**
+     * The balance leave in {@code year} is taken from: the year's own, or the next year's once the
+     * year has been rolled over (pending and cancelled leave of a closed year settle there).
+     */
+    public Optional<LeaveBalance> findOpenLeaveBalance(Employee employee, LeaveType leaveType, Integer year) {
+        Optional<LeaveBalance> balance = leaveBalanceRepository.findByEmployeeAndLeaveTypeAndYear(employee, leaveType, year);
+        if (balance.isPresent() && Boolean.TRUE.equals(balance.get().getRolledOver())) {
+            return leaveBalanceRepository.findByEmployeeAndLeaveTypeAndYear(employee, leaveType, year + 1);
+        }
+        return balance;
+    }
+    
     public LeaveBalance getLeaveBalance(Employee employee, LeaveType leaveType, Integer year) {
         return leaveBalanceRepository
                 .findByEmployeeAndLeaveTypeAndYear(employee, leaveType, year)
@@ -87,22 +134,13 @@ public class LeaveBalanceService {
         return leaveBalanceRepository.findByEmployee(employee);
     }
     
+    /**
+     * Creates the employee's missing balances for the year with the same set-based statement
+     * the yearly allocation job uses, including carry-forward from the previous year.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void initializeLeaveBalancesForEmployee(Employee employee, Integer year) {
-        List<LeaveType> activeLeaveTypes = leaveTypeService.findAllActive();
-        
-        for (LeaveType leaveType : activeLeaveTypes) {
-            try {
-                if (!leaveBalanceRepository.existsByEmployeeAndLeaveTypeAndYear(employee, leaveType, year)) {
-                    Double allocation = leaveType.getMaxDaysPerYear() != null ? 
-                                        leaveType.getMaxDaysPerYear().doubleValue() : 20.0;
-                    createLeaveBalance(employee, leaveType, year, allocation);
-                }
-            } catch (Exception e) {
-                // Log and continue with next leave type
-                System.err.println("Failed to initialize leave balance for " + leaveType.getName() + ": " + e.getMessage());
-            }
-        }
+        leaveBalanceRepository.allocateYear(year, employee.getId() - 1, employee.getId(), defaultAllocation);
     }
     
     @Transactional(propagation = Propagation.REQUIRES_NEW)
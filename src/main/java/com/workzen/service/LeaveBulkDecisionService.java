@@ -0,0 +1,254 @@
+package com.workzen.service;
+
+import com.workzen.entity.Employee;
+import com.workzen.entity.LeaveApplication;
+import com.workzen.entity.LeaveBalance;
+import com.workzen.enums.LeaveStatus;
+import com.workzen.repository.LeaveApplicationRepository;
+import com.workzen.repository.LeaveBalanceRepository;
+import com.workzen.util.LeaveUnits;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Approves or rejects many pending leave applications in one transaction. Applications
+ * (locked) and their balances are read in two queries; deductions, status changes and outbox
+ * log rows are each written as one JDBC batch. Every id gets its own result, so one insufficient
+ * balance doesn't fail the rest. Callers must be HR, whose decision closes the whole approval chain.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class LeaveBulkDecisionService {
+
+    // Same guard and ledger entry as LeaveBalanceRepository.deductIfSufficient, keyed by balance id
+    private static final String DEDUCT_BALANCE =
+            "WITH updated AS (" +
+            "  UPDATE leave_balances SET used_minutes = used_minutes + :minutes, " +
+            "  balance_minutes = balance_minutes - :minutes, " +
+            "  updated_at = now(), version = COALESCE(version, 0) + 1 " +
+            "  WHERE id = :balanceId AND balance_minutes >= :minutes " +
+            "  RETURNING id, balance_minutes) " +
+            "INSERT INTO leave_ledger_entries (leave_balance_id, entry_type, minutes, balance_after_minutes, " +
+            "leave_application_id, remarks, created_at, created_by) " +
+            "SELECT id, 'DEDUCTION', -CAST(:minutes AS bigint), balance_minutes, :leaveApplicationId, " +
+            "'Leave approved', now(), :actor FROM updated";
+
+    private static final String UPDATE_STATUS =
+            "UPDATE leave_applications SET status = :status, approved_by = :approverId, approved_at = :decidedOn, " +
+            "rejection_reason = :rejectionReason, updated_at = now(), updated_by = :actor, " +
+            "version = COALESCE(version, 0) + 1 " +
+            "WHERE id = :id AND status = 'PENDING'";
+
+    // Bulk decisions come from HR, which is final: the open step takes the decision, later steps are skipped
+    private static final String CLOSE_APPROVAL_STEPS =
+            "UPDATE leave_approval_steps SET " +
+            "status = CASE WHEN status = 'PENDING' THEN :status ELSE 'SKIPPED' END, " +
+            "decided_by_id = CASE WHEN status = 'PENDING' THEN :approverId ELSE decided_by_id END, " +
+            "decided_at = CASE WHEN status = 'PENDING' THEN now() ELSE decided_at END, " +
+            "remarks = CASE WHEN status = 'PENDING' THEN :remarks ELSE remarks END, " +
+            "updated_at = now(), version = COALESCE(version, 0) + 1 " +
+            "WHERE leave_application_id = :id AND status IN ('PENDING', 'WAITING')";
+
+    private final LeaveApplicationRepository leaveApplicationRepository;
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${leave.bulk-decision.max-items:200}")
+    private int maxItems;
+
+    private record BalanceKey(long employeeId, long leaveTypeId, int year) {
+    }
+
+    public BulkDecisionResult approve(List<Long> ids, Employee approver) {
+        Map<Long, ItemResult> results = new LinkedHashMap<>();
+        List<LeaveApplication> pending = loadPending(ids, approver, results);
+        if (pending.isEmpty()) {
+            return BulkDecisionResult.of(results);
+        }
+
+        Map<BalanceKey, LeaveBalance> balances = loadBalances(pending);
+
+        // Check balances in request order, so earlier applications win when a balance runs out
+        Map<Long, Long> remaining = new HashMap<>();
+        List<LeaveApplication> approvable = new ArrayList<>();
+        List<SqlParameterSource> deductions = new ArrayList<>();
+        for (LeaveApplication application : pending) {
+            LeaveBalance balance = openBalance(balances, keyOf(application));
+            if (balance == null) {
+                results.put(application.getId(), ItemResult.failed(application.getId(), "Leave balance not found"));
+                continue;
+            }
+            long available = remaining.computeIfAbsent(balance.getId(), id -> balance.getBalanceMinutes());
+            long minutes = application.getDurationMinutes();
+            if (available < minutes) {
+                results.put(application.getId(), ItemResult.failed(application.getId(),
+                        "Insufficient leave balance. Available: " + LeaveUnits.toDays(available)
+                                + ", Requested: " + LeaveUnits.toDays(minutes)));
+                continue;
+            }
+            remaining.put(balance.getId(), available - minutes);
+            approvable.add(application);
+            deductions.add(new MapSqlParameterSource()
+                    .addValue("balanceId", balance.getId())
+                    .addValue("minutes", minutes)
+                    .addValue("leaveApplicationId", application.getId())
+                    .addValue("actor", approver.getEmail()));
+        }
+
+        int[] deducted = jdbcTemplate.batchUpdate(DEDUCT_BALANCE, deductions.toArray(SqlParameterSource[]::new));
+        List<LeaveApplication> approved = new ArrayList<>();
+        for (int i = 0; i < approvable.size(); i++) {
+            LeaveApplication application = approvable.get(i);
+            if (deducted[i] == 0) {
+                // A concurrent single approval used up the balance after we read it
+                results.put(application.getId(), ItemResult.failed(application.getId(), "Insufficient leave balance"));
+            } else {
+                approved.add(application);
+            }
+        }
+
+        String remarks = "Leave application approved by " + approver.getFirstName() + " " + approver.getLastName();
+        writeDecisions(approved, LeaveStatus.APPROVED, approver, null, remarks, "APPROVED");
+        approved.forEach(application -> results.put(application.getId(), ItemResult.succeeded(application.getId())));
+        return BulkDecisionResult.of(results);
+    }
+
+    public BulkDecisionResult reject(List<Long> ids, Employee approver, String rejectionReason) {
+        Map<Long, ItemResult> results = new LinkedHashMap<>();
+        List<LeaveApplication> pending = loadPending(ids, approver, results);
+
+        writeDecisions(pending, LeaveStatus.REJECTED, approver, rejectionReason,
+                rejectionReason != null ? rejectionReason : "Leave application rejected", "REJECTED");
+        pending.forEach(application -> results.put(application.getId(), ItemResult.succeeded(application.getId())));
+        return BulkDecisionResult.of(results);
+    }
+
+    /**
+     * Locks the requested applications and returns the pending ones the approver may decide, in
+     * request order. Every other id gets a failed result; {@code results} keeps one slot per id in
+     * request order.
+     */
+    private List<LeaveApplication> loadPending(List<Long> ids, Employee approver, Map<Long, ItemResult> results) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("No leave applications selected");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > maxItems) {
+            throw new RuntimeException("At most " + maxItems + " leave applications can be processed at once");
+        }
+
+        Map<Long, LeaveApplication> byId = leaveApplicationRepository.findAllByIdInForUpdate(distinctIds).stream()
+                .collect(Collectors.toMap(LeaveApplication::getId, Function.identity()));
+
+        List<LeaveApplication> pending = new ArrayList<>();
+        for (Long id : distinctIds) {
+            LeaveApplication application = byId.get(id);
+            if (application == null) {
+                results.put(id, ItemResult.failed(id, "Leave application not found with id: " + id));
+            } else if (application.getStatus() != LeaveStatus.PENDING) {
+                results.put(id, ItemResult.failed(id, "Only pending leave applications can be decided"));
+            } else if (LeaveApprovalWorkflowService.isBarredFromOwnApplication(application, approver)) {
+                results.put(id, ItemResult.failed(id, LeaveApprovalWorkflowService.OWN_APPLICATION_MESSAGE));
+            } else {
+                results.put(id, null);
+                pending.add(application);
+            }
+        }
+        return pending;
+    }
+
+    private Map<BalanceKey, LeaveBalance> loadBalances(List<LeaveApplication> applications) {
+        Set<Long> employeeIds = applications.stream().map(la -> la.getEmployee().getId()).collect(Collectors.toSet());
+        // Next years too, for applications whose year has already been rolled over
+        Set<Integer> years = applications.stream()
+                .flatMap(la -> Stream.of(la.getStartDate().getYear(), la.getStartDate().getYear() + 1))
+                .collect(Collectors.toSet());
+
+        Map<BalanceKey, LeaveBalance> balances = new HashMap<>();
+        for (LeaveBalance balance : leaveBalanceRepository.findByEmployeeIdInAndYearIn(employeeIds, years)) {
+            balances.put(new BalanceKey(balance.getEmployee().getId(), balance.getLeaveType().getId(), balance.getYear()),
+                    balance);
+        }
+        return balances;
+    }
+
+    private void writeDecisions(List<LeaveApplication> applications, LeaveStatus status, Employee approver,
+                                String rejectionReason, String remarks, String actionType) {
+        if (applications.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        SqlParameterSource[] rows = applications.stream()
+                .map(application -> new MapSqlParameterSource()
+                        .addValue("id", application.getId())
+                        .addValue("status", status.name())
+                        .addValue("approverId", approver.getId())
+                        .addValue("decidedOn", today)
+                        .addValue("rejectionReason", rejectionReason, Types.VARCHAR)
+                        .addValue("actor", approver.getEmail())
+                        .addValue("remarks", remarks)
+                        .addValue("actionType", actionType))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(UPDATE_STATUS, rows);
+        jdbcTemplate.batchUpdate(CLOSE_APPROVAL_STEPS, rows);
+        // Logs go through the outbox like single decisions; the relay job moves them
+        jdbcTemplate.batchUpdate(LeaveAuditLogWriter.INSERT_OUTBOX, applications.stream()
+                .map(application -> LeaveAuditLogWriter.row(application.getId(), LeaveStatus.PENDING, status,
+                        approver.getId(), remarks, actionType))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    // Same rule as LeaveBalanceRepository.OPEN_BALANCE_YEAR: a rolled-over year settles in the next one
+    private static LeaveBalance openBalance(Map<BalanceKey, LeaveBalance> balances, BalanceKey key) {
+        LeaveBalance balance = balances.get(key);
+        if (balance != null && Boolean.TRUE.equals(balance.getRolledOver())) {
+            return balances.get(new BalanceKey(key.employeeId(), key.leaveTypeId(), key.year() + 1));
+        }
+        return balance;
+    }
+
+    private static BalanceKey keyOf(LeaveApplication application) {
+        return new BalanceKey(application.getEmployee().getId(), application.getLeaveType().getId(),
+                application.getStartDate().getYear());
+    }
+
+    public record ItemResult(Long id, boolean success, String message) {
+
+        static ItemResult succeeded(Long id) {
+            return new ItemResult(id, true, null);
+        }
+
+        static ItemResult failed(Long id, String message) {
+            return new ItemResult(id, false, message);
+        }
+    }
+
+    public record BulkDecisionResult(int succeeded, int failed, List<ItemResult> items) {
+
+        static BulkDecisionResult of(Map<Long, ItemResult> results) {
+            List<ItemResult> items = new ArrayList<>(results.values());
+            int succeeded = (int) items.stream().filter(ItemResult::success).count();
+            return new BulkDecisionResult(succeeded, items.size() - succeeded, items);
+        }
+    }
+}
@@ -36,6 +36,10 @@ public class LeaveTypeService {
         leaveType.setRequiresApproval(leaveTypeDetails.getRequiresApproval());
         leaveType.setIsPaid(leaveTypeDetails.getIsPaid());
         leaveType.setIsActive(leaveTypeDetails.getIsActive());
+        leaveType.setIsCarryForward(leaveTypeDetails.getIsCarryForward());
+        leaveType.setMaxCarryForwardDays(leaveTypeDetails.getMaxCarryForwardDays());
+        leaveType.setIsEncashable(leaveTypeDetails.getIsEncashable());
+        leaveType.setMaxEncashmentDays(leaveTypeDetails.getMaxEncashmentDays());
         
         return leaveTypeRepository.save(leaveType);
     }
@@ -0,0 +1,111 @@
+package com.workzen.service;
+
+import com.workzen.enums.EmployeeStatus;
+import com.workzen.event.EmployeeChangedEvent;
+import com.workzen.repository.DepartmentRepository;
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.repository.EmployeeRepository.ReportingLine;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory org tree (employee -> manager, employee -> department, department -> head), so
+ * approval chains resolve without walking lazy Employee.getManager() proxies. The whole tree is
+ * loaded in two queries at startup; changed employees are evicted and re-read on next use.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrgHierarchyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrgHierarchyCache.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+
+    // Replaced as a whole by reload, so readers never see a half-filled tree
+    private volatile Snapshot snapshot = new Snapshot(new ConcurrentHashMap<>(), Map.of());
+
+    // Nodes are filled lazily and evicted in place; department heads only change with a reload
+    private record Snapshot(Map<Long, Node> nodes, Map<Long, Long> headByDepartment) {
+    }
+
+    private record Node(Long managerId, Long departmentId, boolean canApprove) {
+
+        static Node of(ReportingLine line) {
+            EmployeeStatus status = line.getStatus();
+            return new Node(line.getManagerId(), line.getDepartmentId(),
+                    Boolean.TRUE.equals(line.getActive()) && status != null && status.canLogin());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    public void reload() {
+        Map<Long, Long> heads = new HashMap<>();
+        departmentRepository.findAllDepartmentHeads().forEach(row -> {
+            if (row.getHeadId() != null) {
+                heads.put(row.getDepartmentId(), row.getHeadId());
+            }
+        });
+        Map<Long, Node> nodes = new ConcurrentHashMap<>();
+        employeeRepository.findAllReportingLines().forEach(line -> nodes.put(line.getEmployeeId(), Node.of(line)));
+
+        snapshot = new Snapshot(nodes, Map.copyOf(heads));
+        logger.info("Loaded org hierarchy: {} employees, {} department heads", nodes.size(), heads.size());
+    }
+
+    public void evictEmployee(Long employeeId) {
+        snapshot.nodes().remove(employeeId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        evictEmployee(event.employeeId());
+    }
+
+    /**
+     * The employee's reporting manager, if there is one who can currently act on approvals.
+     */
+    public Optional<Long> findManager(Long employeeId) {
+        return node(employeeId).map(Node::managerId).filter(this::canApprove);
+    }
+
+    /**
+     * The head of the employee's department, if there is one who can currently act on approvals.
+     */
+    public Optional<Long> findDepartmentHead(Long employeeId) {
+        Map<Long, Long> headByDepartment = snapshot.headByDepartment();
+        return node(employeeId)
+                .map(Node::departmentId)
+                .map(headByDepartment::get)
+                .filter(this::canApprove);
+    }
+
+    private boolean canApprove(Long employeeId) {
+        return node(employeeId).map(Node::canApprove).orElse(false);
+    }
+
+    private Optional<Node> node(Long employeeId) {
+        if (employeeId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot.nodes().computeIfAbsent(employeeId, id -> employeeRepository
+                .findReportingLine(id)
+                .map(Node::of)
+                .orElse(null)));
+    }
+}
@@ -2,6 +2,8 @@ package com.workzen.service;
 
 import com.workzen.entity.Payroll;
 import com.workzen.entity.Employee;
+import com.workzen.entity.LeaveEncashment;
+import com.workzen.repository.LeaveEncashmentRepository;
 import com.workzen.repository.PayrollRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -22,6 +24,8 @@ public class PayrollService {
     private static final Logger logger = LoggerFactory.getLogger(PayrollService.class);
 
     private final PayrollRepository payrollRepository;
+    private final HolidayCalendarCache holidayCalendarCache;
+    private final LeaveEncashmentRepository leaveEncashmentRepository;
     
     public Payroll generatePayroll(Employee employee, LocalDate payPeriodStart, LocalDate payPeriodEnd) {
         // Check if payroll already exists for this period
@@ -29,8 +33,11 @@ public class PayrollService {
         // Note: Using salaryMonth field instead of separate start/end dates
         
         // Calculate payroll components
-        double basicSalary = employee.getSalary() != null ? employee.getSalary() : 0.0;
-        double grossPay = calculateGrossPay(basicSalary);
+        double basicSalary = prorateForJoining(employee,
+                employee.getSalary() != null ? employee.getSalary() : 0.0, payPeriodStart, payPeriodEnd);
+        List<LeaveEncashment> encashments = leaveEncashmentRepository.findByEmployeeIdAndProcessedFalse(employee.getId());
+        double leaveEncashment = encashments.stream().mapToDouble(LeaveEncashment::getAmount).sum();
+        double grossPay = calculateGrossPay(basicSalary) + leaveEncashment;
         double taxDeduction = calculateTax(grossPay);
         double pfDeduction = calculatePF(basicSalary);
         double totalDeductions = taxDeduction + pfDeduction;
@@ -40,6 +47,7 @@ public class PayrollService {
                 .employee(employee)
                 .salaryMonth(payPeriodStart)
                 .basicSalary(basicSalary)
+                .leaveEncashment(leaveEncashment)
                 .grossSalary(grossPay)
                 .providentFund(pfDeduction)
                 .incomeTax(taxDeduction)
@@ -49,7 +57,14 @@ public class PayrollService {
                 .isProcessed(true)
                 .build();
         
-        return payrollRepository.save(payroll);
+        Payroll saved = payrollRepository.save(payroll);
+        // Each encashment line is paid exactly once
+        encashments.forEach(encashment -> {
+            encashment.setProcessed(true);
+            encashment.setPayroll(saved);
+        });
+        leaveEncashmentRepository.saveAll(encashments);
+        return saved;
     }
     
     public Payroll updatePayroll(Long id, Payroll payrollDetails) {
@@ -72,7 +87,8 @@ public class PayrollService {
                          (payroll.getTransportAllowance() != null ? payroll.getTransportAllowance() : 0) +
                          (payroll.getMedicalAllowance() != null ? payroll.getMedicalAllowance() : 0) +
                          (payroll.getOtherAllowances() != null ? payroll.getOtherAllowances() : 0) +
-                         (payroll.getBonus() != null ? payroll.getBonus() : 0);
+                         (payroll.getBonus() != null ? payroll.getBonus() : 0) +
+                         (payroll.getLeaveEncashment() != null ? payroll.getLeaveEncashment() : 0);
         
         double totalDeductions = (payroll.getProvidentFund() != null ? payroll.getProvidentFund() : 0) + 
                                 (payroll.getIncomeTax() != null ? payroll.getIncomeTax() : 0) +
@@ -136,6 +152,25 @@ public class PayrollService {
                 .toList();
     }
     
+    /**
+     * Pays employees who joined mid-period only for the working days since their joining date.
+     */
+    private double prorateForJoining(Employee employee, double salary, LocalDate payPeriodStart, LocalDate payPeriodEnd) {
+        LocalDate joined = employee.getDateOfJoining();
+        if (joined == null || !joined.isAfter(payPeriodStart)) {
+            return salary;
+        }
+        if (joined.isAfter(payPeriodEnd)) {
+            throw new RuntimeException("Employee " + employee.getEmployeeCode() + " joined after the pay period");
+        }
+        int periodDays = holidayCalendarCache.workingDaysBetween(employee, payPeriodStart, payPeriodEnd);
+        if (periodDays == 0) {
+            return salary;
+        }
+        int workedDays = holidayCalendarCache.workingDaysBetween(employee, joined, payPeriodEnd);
+        return salary * workedDays / periodDays;
+    }
+    
     private double calculateGrossPay(double basicSalary) {
         // Basic calculation - can be enhanced with allowances, overtime, etc.
         double hra = basicSalary * 0.4; // 40% HRA
@@ -0,0 +1,229 @@
+package com.workzen.service;
+
+import com.workzen.entity.Employee;
+import com.workzen.entity.Shift;
+import com.workzen.event.EmployeeChangedEvent;
+import com.workzen.repository.ShiftRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of shifts so check-in/check-out can work out lateness, early leave
+ * and overtime without touching the database. Shifts are compiled into per-weekday
+ * arrays; the employee -> shift mapping is loaded in one query at startup and then
+ * filled lazily for employees created or changed afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShiftScheduleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShiftScheduleCache.class);
+
+    // Marks employees that resolve to the default schedule
+    private static final long NO_SHIFT = 0L;
+
+    private final ShiftRepository shiftRepository;
+
+    // Replaced as a whole by reload, so check-ins never see a half-loaded set of shifts
+    private volatile Snapshot snapshot;
+
+    @Value("${attendance.default-shift.start:09:00}")
+    private String defaultStart;
+
+    @Value("${attendance.default-shift.end:18:00}")
+    private String defaultEnd;
+
+    @Value("${attendance.default-shift.grace-minutes:15}")
+    private int defaultGraceMinutes;
+
+    // Employee assignments are filled lazily and evicted in place; shifts only change with a reload
+    private record Snapshot(Map<Long, WorkSchedule> schedulesByShift, Map<Long, Long> shiftByEmployee,
+                            WorkSchedule defaultSchedule) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    public void reload() {
+        Map<Long, WorkSchedule> schedules = new HashMap<>();
+        WorkSchedule fallback = WorkSchedule.of(LocalTime.parse(defaultStart), LocalTime.parse(defaultEnd),
+                defaultGraceMinutes, WorkSchedule.MONDAY_TO_FRIDAY);
+        for (Shift shift : shiftRepository.findByIsActiveTrue()) {
+            WorkSchedule schedule = WorkSchedule.of(shift);
+            schedules.put(shift.getId(), schedule);
+            if (Boolean.TRUE.equals(shift.getIsDefault())) {
+                fallback = schedule;
+            }
+        }
+
+        Map<Long, Long> shiftByEmployee = new ConcurrentHashMap<>();
+        shiftRepository.findAllEmployeeShifts().forEach(row ->
+                shiftByEmployee.put(row.getEmployeeId(), row.getShiftId() != null ? row.getShiftId() : NO_SHIFT));
+
+        snapshot = new Snapshot(Map.copyOf(schedules), shiftByEmployee, fallback);
+        logger.info("Loaded {} shifts and {} employee shift assignments", schedules.size(), shiftByEmployee.size());
+    }
+
+    public WorkSchedule getSchedule(Employee employee) {
+        return getSchedule(employee.getId());
+    }
+
+    public WorkSchedule getSchedule(Long employeeId) {
+        Snapshot current = current();
+        Long shiftId = current.shiftByEmployee().get(employeeId);
+        if (shiftId == null) {
+            // Looked up outside the map so a slow query doesn't block other employees' entries
+            shiftId = shiftRepository.findEmployeeShift(employeeId)
+                    .map(ShiftRepository.EmployeeShift::getShiftId)
+                    .orElse(NO_SHIFT);
+            current.shiftByEmployee().putIfAbsent(employeeId, shiftId);
+        }
+        WorkSchedule schedule = shiftId != NO_SHIFT ? current.schedulesByShift().get(shiftId) : null;
+        return schedule != null ? schedule : current.defaultSchedule();
+    }
+
+    /**
+     * The default shift, or the attendance.default-shift.* schedule when no shift is marked default.
+     */
+    public WorkSchedule getDefaultSchedule() {
+        return current().defaultSchedule();
+    }
+
+    public void evictEmployee(Long employeeId) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.shiftByEmployee().remove(employeeId);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        evictEmployee(event.employeeId());
+    }
+
+    /**
+     * A shift compiled into per-weekday arrays of minutes since midnight, indexed by
+     * DayOfWeek.getValue() - 1. Off days have a start of -1. An end past 1440 means
+     * the shift finishes the next day.
+     */
+    public static final class WorkSchedule {
+
+        public static final int MONDAY_TO_FRIDAY = 0b0011111;
+
+        private static final int MINUTES_PER_DAY = 24 * 60;
+
+        private final int[] startMinute = new int[7];
+        private final int[] endMinute = new int[7];
+        private final int graceMinutes;
+
+        private WorkSchedule(LocalTime start, LocalTime end, int graceMinutes, int workingDays) {
+            int startOfShift = start.toSecondOfDay() / 60;
+            int endOfShift = end.toSecondOfDay() / 60;
+            if (endOfShift <= startOfShift) {
+                endOfShift += MINUTES_PER_DAY;
+            }
+            Arrays.fill(startMinute, -1);
+            Arrays.fill(endMinute, -1);
+            for (int day = 0; day < 7; day++) {
+                if ((workingDays & (1 << day)) != 0) {
+                    startMinute[day] = startOfShift;
+                    endMinute[day] = endOfShift;
+                }
+            }
+            this.graceMinutes = graceMinutes;
+        }
+
+        static WorkSchedule of(LocalTime start, LocalTime end, int graceMinutes, int workingDays) {
+            return new WorkSchedule(start, end, graceMinutes, workingDays);
+        }
+
+        static WorkSchedule of(Shift shift) {
+            return new WorkSchedule(shift.getStartTime(), shift.getEndTime(),
+                    shift.getGraceMinutes() != null ? shift.getGraceMinutes() : 0,
+                    shift.getWorkingDays() != null ? shift.getWorkingDays() : MONDAY_TO_FRIDAY);
+        }
+
+        public boolean isWorkingDay(DayOfWeek day) {
+            return startMinute[day.getValue() - 1] >= 0;
+        }
+
+        public int scheduledMinutes(DayOfWeek day) {
+            int index = day.getValue() - 1;
+            return startMinute[index] >= 0 ? endMinute[index] - startMinute[index] : 0;
+        }
+
+        /**
+         * Minutes after shift start, reported only once the grace period has passed. A check-in
+         * after midnight during an overnight shift counts against the shift that started the day before.
+         */
+        public int lateMinutes(LocalDateTime checkIn) {
+            LocalDate shiftDate = shiftStartDate(checkIn);
+            int index = shiftDate.getDayOfWeek().getValue() - 1;
+            if (startMinute[index] < 0) {
+                return 0;
+            }
+            int late = minutesSince(shiftDate, checkIn) - startMinute[index];
+            return late > graceMinutes ? late : 0;
+        }
+
+        /**
+         * The day the shift running at {@code time} started: the previous day while its overnight
+         * shift hasn't ended yet, otherwise the same day.
+         */
+        public LocalDate shiftStartDate(LocalDateTime time) {
+            LocalDate previous = time.toLocalDate().minusDays(1);
+            int index = previous.getDayOfWeek().getValue() - 1;
+            if (endMinute[index] > MINUTES_PER_DAY && minutesSince(previous, time) < endMinute[index]) {
+                return previous;
+            }
+            return time.toLocalDate();
+        }
+
+        public int earlyLeaveMinutes(LocalDate date, LocalDateTime checkOut) {
+            int index = date.getDayOfWeek().getValue() - 1;
+            if (endMinute[index] < 0) {
+                return 0;
+            }
+            return Math.max(0, endMinute[index] - minutesSince(date, checkOut));
+        }
+
+        /**
+         * Everything beyond the scheduled shift length; all of it on an off day.
+         */
+        public long overtimeMinutes(DayOfWeek day, long workedMinutes) {
+            return Math.max(0, workedMinutes - scheduledMinutes(day));
+        }
+
+        private static int minutesSince(LocalDate date, LocalDateTime time) {
+            return (int) Duration.between(date.atStartOfDay(), time).toMinutes();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.workzen.service;
+
+import com.workzen.entity.Department;
+import com.workzen.entity.Employee;
+import com.workzen.entity.Shift;
+import com.workzen.repository.DepartmentRepository;
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.repository.ShiftRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ShiftService {
+    
+    private final ShiftRepository shiftRepository;
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final ShiftScheduleCache shiftScheduleCache;
+    
+    public Shift createShift(Shift shift) {
+        if (shiftRepository.existsByName(shift.getName())) {
+            throw new RuntimeException("Shift with name '" + shift.getName() + "' already exists");
+        }
+        Shift saved = shiftRepository.save(shift);
+        makeOnlyDefault(saved);
+        reloadCacheAfterCommit();
+        return saved;
+    }
+    
+    public Shift updateShift(Long id, Shift shiftDetails) {
+        Shift shift = findById(id);
+        
+        if (!shift.getName().equals(shiftDetails.getName()) &&
+            shiftRepository.existsByName(shiftDetails.getName())) {
+            throw new RuntimeException("Shift with name '" + shiftDetails.getName() + "' already exists");
+        }
+        
+        shift.setName(shiftDetails.getName());
+        shift.setStartTime(shiftDetails.getStartTime());
+        shift.setEndTime(shiftDetails.getEndTime());
+        shift.setGraceMinutes(shiftDetails.getGraceMinutes());
+        shift.setWorkingDays(shiftDetails.getWorkingDays());
+        shift.setIsDefault(shiftDetails.getIsDefault());
+        shift.setIsActive(shiftDetails.getIsActive());
+        
+        Shift saved = shiftRepository.save(shift);
+        makeOnlyDefault(saved);
+        reloadCacheAfterCommit();
+        return saved;
+    }
+    
+    public Shift findById(Long id) {
+        return shiftRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Shift not found with id: " + id));
+    }
+    
+    public List<Shift> findAll() {
+        return shiftRepository.findAll();
+    }
+    
+    public List<Shift> findAllActive() {
+        return shiftRepository.findByIsActiveTrue();
+    }
+    
+    public void assignToEmployee(Long employeeId, Long shiftId) {
+        Employee employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new RuntimeException("Employee not found with id: " + employeeId));
+        employee.setShift(shiftId != null ? findById(shiftId) : null);
+        employeeRepository.save(employee);
+        reloadCacheAfterCommit();
+    }
+    
+    public void assignToDepartment(Long departmentId, Long shiftId) {
+        Department department = departmentRepository.findById(departmentId)
+                .orElseThrow(() -> new RuntimeException("Department not found with id: " + departmentId));
+        department.setShift(shiftId != null ? findById(shiftId) : null);
+        departmentRepository.save(department);
+        reloadCacheAfterCommit();
+    }
+    
+    private void makeOnlyDefault(Shift shift) {
+        if (!Boolean.TRUE.equals(shift.getIsDefault())) {
+            return;
+        }
+        shiftRepository.findAll().stream()
+                .filter(other -> !other.getId().equals(shift.getId()) && Boolean.TRUE.equals(other.getIsDefault()))
+                .forEach(other -> {
+                    other.setIsDefault(false);
+                    shiftRepository.save(other);
+                });
+    }
+    
+    private void reloadCacheAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shiftScheduleCache.reload();
+            }
+        });
+    }
+}
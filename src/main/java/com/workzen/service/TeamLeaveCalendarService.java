@@ -0,0 +1,133 @@
+package com.workzen.service;
+
+import com.workzen.dto.TeamLeaveCalendarDTO;
+import com.workzen.entity.Employee;
+import com.workzen.entity.LeaveApplication;
+import com.workzen.enums.LeaveStatus;
+import com.workzen.repository.LeaveApplicationRepository;
+import com.workzen.repository.LeaveApplicationRepository.LeaveInterval;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Team leave calendar. Leaves overlapping the window are read in one range query and turned
+ * into +1/-1 events at their (clipped) start and the day after their end; a single sweep over
+ * the sorted events then yields who is off on every day, in O(leaves log leaves + days + output).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamLeaveCalendarService {
+
+    private static final List<LeaveStatus> COUNTED_STATUSES = List.of(LeaveStatus.APPROVED, LeaveStatus.PENDING);
+
+    private final LeaveApplicationRepository leaveApplicationRepository;
+    private final EmployeeService employeeService;
+
+    @Value("${leave.coverage.min-ratio:0.7}")
+    private double defaultMinCoverage;
+
+    @Value("${leave.calendar.max-days:92}")
+    private int maxDays;
+
+    private record Event(int day, long employeeId, boolean approved, int delta) {
+    }
+
+    public TeamLeaveCalendarDTO getCalendar(List<Employee> members, LocalDate startDate, LocalDate endDate,
+                                            Double minCoverage) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date cannot be before start date");
+        }
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > maxDays) {
+            throw new RuntimeException("Calendar window cannot be longer than " + maxDays + " days");
+        }
+        double threshold = minCoverage != null ? minCoverage : defaultMinCoverage;
+
+        Set<Long> memberIds = members.stream().map(Employee::getId).collect(Collectors.toSet());
+        List<Event> events = new ArrayList<>();
+        if (!memberIds.isEmpty()) {
+            for (LeaveInterval leave : leaveApplicationRepository.findIntervalsByEmployeeIdsOverlapping(
+                    memberIds, COUNTED_STATUSES, startDate, endDate)) {
+                int from = (int) Math.max(0, ChronoUnit.DAYS.between(startDate, leave.getStartDate()));
+                int to = (int) Math.min(days - 1, ChronoUnit.DAYS.between(startDate, leave.getEndDate()));
+                boolean approved = leave.getStatus() == LeaveStatus.APPROVED;
+                events.add(new Event(from, leave.getEmployeeId(), approved, 1));
+                events.add(new Event(to + 1, leave.getEmployeeId(), approved, -1));
+            }
+        }
+        events.sort(Comparator.comparingInt(Event::day));
+
+        // Employee id -> number of open leaves covering the current day
+        Map<Long, Integer> approvedOpen = new TreeMap<>();
+        Map<Long, Integer> pendingOpen = new TreeMap<>();
+        List<TeamLeaveCalendarDTO.Day> calendar = new ArrayList<>(days);
+        List<LocalDate> warnings = new ArrayList<>();
+        int next = 0;
+        for (int day = 0; day < days; day++) {
+            for (; next < events.size() && events.get(next).day() == day; next++) {
+                Event event = events.get(next);
+                (event.approved() ? approvedOpen : pendingOpen)
+                        .merge(event.employeeId(), event.delta(), (a, b) -> a + b == 0 ? null : a + b);
+            }
+
+            long[] onLeave = approvedOpen.keySet().stream().mapToLong(Long::longValue).toArray();
+            long[] pending = pendingOpen.keySet().stream()
+                    .filter(id -> !approvedOpen.containsKey(id))
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            int teamSize = memberIds.size();
+            double coverage = coverage(teamSize, onLeave.length);
+            double projected = coverage(teamSize, onLeave.length + pending.length);
+            LocalDate date = startDate.plusDays(day);
+            boolean below = projected < threshold;
+            if (below) {
+                warnings.add(date);
+            }
+            calendar.add(new TeamLeaveCalendarDTO.Day(date, onLeave.length, pending.length, onLeave, pending,
+                    coverage, projected, below));
+        }
+
+        return TeamLeaveCalendarDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .teamSize(memberIds.size())
+                .minCoverage(threshold)
+                .days(calendar)
+                .coverageWarnings(warnings)
+                .build();
+    }
+
+    /**
+     * The calendar an approver should look at before deciding: the applicant's peers under the
+     * same manager (or their department when they have no manager) over the application's dates.
+     */
+    public TeamLeaveCalendarDTO getCoverageForApplication(LeaveApplication application) {
+        Employee applicant = application.getEmployee();
+        List<Employee> team;
+        if (applicant.getManager() != null) {
+            team = employeeService.findSubordinates(applicant.getManager());
+        } else if (applicant.getDepartment() != null) {
+            team = employeeService.findActiveByDepartment(applicant.getDepartment());
+        } else {
+            team = List.of(applicant);
+        }
+        return getCalendar(team, application.getStartDate(), application.getEndDate(), null);
+    }
+
+    private static double coverage(int teamSize, int off) {
+        return teamSize == 0 ? 1.0 : Math.max(0, teamSize - off) / (double) teamSize;
+    }
+}
@@ -0,0 +1,32 @@
+package com.workzen.util;
+
+/**
+ * Leave is stored in whole minutes so balances, deductions and sums are exact integer
+ * arithmetic. A leave day is a nominal 8-hour day regardless of the employee's shift; days
+ * are only used at the edges (configuration in days, API fields for display).
+ */
+public final class LeaveUnits {
+    
+    public static final long MINUTES_PER_DAY = 480;
+    
+    public static final long HALF_DAY = MINUTES_PER_DAY / 2;
+    
+    private LeaveUnits() {
+    }
+    
+    public static long fromDays(double days) {
+        return Math.round(days * MINUTES_PER_DAY);
+    }
+    
+    public static long fromHours(double hours) {
+        return Math.round(hours * 60);
+    }
+    
+    public static double toDays(long minutes) {
+        return minutes / (double) MINUTES_PER_DAY;
+    }
+    
+    public static double toHours(long minutes) {
+        return minutes / 60.0;
+    }
+}
@@ -0,0 +1,68 @@
+-- One-off migration: convert attendance into a table range-partitioned by month on "date".
+--
+-- Run manually (psql -f) during a maintenance window, with the application stopped:
+--   psql -d workzen_hrms -v ON_ERROR_STOP=1 -f attendance_partitioning.sql
+--
+-- Afterwards AttendancePartitionJob keeps future partitions created and moves closed years
+-- into the attendance_archive schema. Hibernate keeps mapping the parent table, so the
+-- entity and repositories don't change. Two things to know:
+--   * the primary key becomes (id, date) because Postgres requires the partition key in every
+--     unique constraint; ids come from a new attendance_id_seq continuing after the highest
+--     existing id (Hibernate creates id as an identity column, whose sequence can't be
+--     re-attached and goes away with the old table), so they stay unique
+--   * other tables can't hold a foreign key to attendance(id) alone, so reference rows by id
+--     without a constraint
+
+BEGIN;
+
+ALTER TABLE attendance RENAME TO attendance_unpartitioned;
+ALTER TABLE attendance_unpartitioned RENAME CONSTRAINT attendance_pkey TO attendance_unpartitioned_pkey;
+
+CREATE TABLE attendance (LIKE attendance_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED)
+    PARTITION BY RANGE (date);
+
+ALTER TABLE attendance ADD CONSTRAINT attendance_pkey PRIMARY KEY (id, date);
+ALTER TABLE attendance ADD CONSTRAINT attendance_employee_date_key UNIQUE (employee_id, date);
+ALTER TABLE attendance ADD CONSTRAINT attendance_employee_fk
+    FOREIGN KEY (employee_id) REFERENCES employees (id);
+CREATE INDEX attendance_date_status_idx ON attendance (date, status);
+
+-- A fresh sequence drives the new table; the old identity (or serial) sequence belongs to
+-- attendance_unpartitioned and is dropped with it. LIKE doesn't copy the identity, and DROP
+-- DEFAULT clears a copied serial default that would still point at the old sequence.
+ALTER TABLE attendance ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE attendance_partitioned_id_seq AS bigint OWNED BY attendance.id;
+ALTER TABLE attendance ALTER COLUMN id SET DEFAULT nextval('attendance_partitioned_id_seq');
+
+-- One partition per month covering the existing data plus the next three months
+DO $$
+DECLARE
+    first_month date := date_trunc('month', COALESCE((SELECT MIN(date) FROM attendance_unpartitioned), current_date));
+    last_month  date := date_trunc('month', current_date) + INTERVAL '3 months';
+    m date;
+BEGIN
+    m := first_month;
+    WHILE m <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF attendance FOR VALUES FROM (%L) TO (%L)',
+                       'attendance_' || to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Catches anything outside the prepared range (back-dated corrections, clock skew)
+CREATE TABLE attendance_default PARTITION OF attendance DEFAULT;
+
+INSERT INTO attendance SELECT * FROM attendance_unpartitioned;
+
+SELECT setval('attendance_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM attendance), 0) + 1, false);
+
+DROP TABLE attendance_unpartitioned;
+
+-- Take over the usual name now that the old sequence is gone; the default refers to it by oid
+ALTER SEQUENCE attendance_partitioned_id_seq RENAME TO attendance_id_seq;
+
+CREATE SCHEMA IF NOT EXISTS attendance_archive;
+
+COMMIT;
+
+ANALYZE attendance;
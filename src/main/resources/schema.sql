@@ -0,0 +1,120 @@
+-- Objects Hibernate's ddl-auto can't express. Runs on every startup after the schema update,
+-- so every statement must be idempotent. Statements are separated by @@ (see
+-- spring.sql.init.separator) because DO blocks contain semicolons. Any error stops startup;
+-- the only tolerated failure is an extension the database user may not install, which is
+-- caught below and leaves its dependent objects out.
+
+-- Submission entries in leave_application_logs have no previous status
+ALTER TABLE leave_application_logs ALTER COLUMN previous_status DROP NOT NULL
+@@
+
+-- Leave amounts moved from fractional days to whole minutes (480 per day, see LeaveUnits).
+-- Hibernate adds the minute columns (default 0, so existing rows don't block it); these copy the
+-- old values over once and drop the old columns. One block per table, so a failure in one doesn't
+-- roll back the ones already done; the failure itself stops startup.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'leave_balances' AND column_name = 'balance') THEN
+        UPDATE leave_balances SET
+            allocated_minutes = round(COALESCE(total_allocated, 0) * 480),
+            used_minutes = round(COALESCE(used, 0) * 480),
+            balance_minutes = round(COALESCE(balance, 0) * 480),
+            carried_forward_minutes = round(COALESCE(carried_forward, 0) * 480);
+        ALTER TABLE leave_balances
+            DROP COLUMN total_allocated, DROP COLUMN used, DROP COLUMN balance, DROP COLUMN carried_forward;
+    END IF;
+END
+$$
+@@
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'leave_ledger_entries' AND column_name = 'days') THEN
+        UPDATE leave_ledger_entries SET minutes = round(days * 480), balance_after_minutes = round(balance_after * 480);
+        ALTER TABLE leave_ledger_entries DROP COLUMN days, DROP COLUMN balance_after;
+    END IF;
+END
+$$
+@@
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'leave_applications' AND column_name = 'number_of_days') THEN
+        UPDATE leave_applications SET duration_minutes = round(number_of_days * 480);
+        ALTER TABLE leave_applications DROP COLUMN number_of_days;
+    END IF;
+END
+$$
+@@
+
+-- A pending or approved full-day leave can't overlap another pending or approved full-day leave
+-- of the same employee. Partial-day leave (a single date, under 480 minutes) is left out so two
+-- of them can share a day; LeaveApplicationService sums those per day under a per-employee lock.
+-- The GiST index behind the constraint also serves the overlap check in applyLeave. Comes after
+-- the minutes migration above, since the predicate reads duration_minutes.
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS btree_gist;
+EXCEPTION
+    -- Left for a DBA; LeaveApplicationService logs an error while the constraint is missing
+    WHEN insufficient_privilege OR undefined_file OR feature_not_supported THEN
+        RAISE WARNING 'btree_gist not installed (%), leave_applications_no_full_day_overlap not created', SQLERRM;
+END
+$$
+@@
+
+-- Replaced by leave_applications_no_full_day_overlap, which lets partial days share a date
+ALTER TABLE leave_applications DROP CONSTRAINT IF EXISTS leave_applications_no_overlap
+@@
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'btree_gist')
+            AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'leave_applications_no_full_day_overlap') THEN
+        ALTER TABLE leave_applications ADD CONSTRAINT leave_applications_no_full_day_overlap
+            EXCLUDE USING gist (employee_id WITH =, daterange(start_date, end_date, '[]') WITH &&)
+            WHERE (status IN ('PENDING', 'APPROVED') AND NOT (start_date = end_date AND duration_minutes < 480));
+    END IF;
+EXCEPTION
+    -- Left for the next startup; LeaveApplicationService logs an error while the constraint is missing
+    WHEN exclusion_violation THEN
+        RAISE WARNING 'leave_applications_no_full_day_overlap not created: existing leave applications overlap';
+END
+$$
+@@
+
+-- Employee search: one lower-cased text of name, email and code with a trigram index, so
+-- substring and fuzzy lookups (EmployeeRepository.searchEmployees) don't scan the table
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION
+    -- EmployeeService falls back to an unindexed LIKE search without it
+    WHEN insufficient_privilege OR undefined_file OR feature_not_supported THEN
+        RAISE WARNING 'pg_trgm not installed (%), employee search will not be indexed', SQLERRM;
+END
+$$
+@@
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = 'employees' AND column_name = 'search_text') THEN
+        ALTER TABLE employees ADD COLUMN search_text text GENERATED ALWAYS AS (
+            lower(first_name || ' ' || last_name || ' ' || email || ' ' || employee_code)) STORED;
+    END IF;
+END
+$$
+@@
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_employees_search_text_trgm ON employees USING gin (search_text gin_trgm_ops);
+    END IF;
+END
+$$
+@@
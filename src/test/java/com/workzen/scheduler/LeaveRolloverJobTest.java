@@ -0,0 +1,51 @@
+package com.workzen.scheduler;
+
+import com.workzen.scheduler.LeaveRolloverJob.Split;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveRolloverJobTest {
+
+    private static final long DAY = 480;
+
+    @Test
+    void carriesUpToTheCapThenEncashesThenLapses() {
+        Split split = LeaveRolloverJob.split(12 * DAY, true, 5, true, 4);
+
+        assertThat(split).isEqualTo(new Split(5 * DAY, 4 * DAY, 3 * DAY));
+    }
+
+    @Test
+    void uncappedCarryTakesEverything() {
+        Split split = LeaveRolloverJob.split(12 * DAY + 120, true, null, true, 4);
+
+        assertThat(split).isEqualTo(new Split(12 * DAY + 120, 0, 0));
+    }
+
+    @Test
+    void uncappedEncashmentTakesWhatCarryLeaves() {
+        Split split = LeaveRolloverJob.split(7 * DAY, true, 2, true, null);
+
+        assertThat(split).isEqualTo(new Split(2 * DAY, 5 * DAY, 0));
+    }
+
+    @Test
+    void balanceThatDoesNotContinueIsEncashedOrLapsed() {
+        // Employee left or the leave type was retired: nothing carries over
+        assertThat(LeaveRolloverJob.split(6 * DAY, false, 10, true, 4)).isEqualTo(new Split(0, 4 * DAY, 2 * DAY));
+        assertThat(LeaveRolloverJob.split(6 * DAY, false, 10, false, null)).isEqualTo(new Split(0, 0, 6 * DAY));
+    }
+
+    @Test
+    void balanceBelowTheCapsMovesWhole() {
+        assertThat(LeaveRolloverJob.split(DAY / 2, true, 5, true, 4)).isEqualTo(new Split(DAY / 2, 0, 0));
+        assertThat(LeaveRolloverJob.split(3 * DAY, false, null, true, 4)).isEqualTo(new Split(0, 3 * DAY, 0));
+    }
+
+    @Test
+    void zeroCapsMoveNothing() {
+        assertThat(LeaveRolloverJob.split(3 * DAY, true, 0, true, 0)).isEqualTo(new Split(0, 0, 3 * DAY));
+        assertThat(LeaveRolloverJob.split(0, true, null, true, null)).isEqualTo(new Split(0, 0, 0));
+    }
+}
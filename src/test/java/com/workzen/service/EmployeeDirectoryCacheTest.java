@@ -0,0 +1,154 @@
+package com.workzen.service;
+
+import com.workzen.dto.employee.EmployeeDirectoryEntry;
+import com.workzen.enums.EmployeeStatus;
+import com.workzen.repository.EmployeeRepository;
+import com.workzen.repository.EmployeeRepository.DirectoryRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeDirectoryCacheTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeDirectoryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(employeeRepository.findAllDirectoryRows()).thenReturn(List.of(
+                row(1, "E001", "Alice", "Smith", EmployeeStatus.ACTIVE),
+                row(2, "E002", "Bob", "Smithers", EmployeeStatus.PROBATION),
+                row(3, "E003", "Carol", "Jones", EmployeeStatus.TERMINATED),
+                row(4, "SMI", "Zed", "Zulu", EmployeeStatus.ACTIVE)));
+        cache = new EmployeeDirectoryCache(employeeRepository);
+        cache.reload();
+    }
+
+    @Test
+    void matchesWordPrefixesWithAnExactCodeFirst() {
+        assertThat(ids(cache.search("smi", 10, true))).containsExactly(4L, 1L, 2L);
+    }
+
+    @Test
+    void everyTypedWordMustMatch() {
+        assertThat(ids(cache.search("alice smi", 10, true))).containsExactly(1L);
+        assertThat(ids(cache.search("SMITHERS b", 10, true))).containsExactly(2L);
+        assertThat(cache.search("alice jones", 10, true)).isEmpty();
+    }
+
+    @Test
+    void leavesOutInactiveEmployeesUnlessAsked() {
+        assertThat(cache.search("jones", 10, true)).isEmpty();
+
+        List<EmployeeDirectoryEntry> all = cache.search("jones", 10, false);
+        assertThat(ids(all)).containsExactly(3L);
+        assertThat(all.get(0).isActive()).isFalse();
+    }
+
+    @Test
+    void keepsOnlyTheBestRowsUpToTheLimit() {
+        assertThat(ids(cache.search("smi", 1, true))).containsExactly(4L);
+        assertThat(ids(cache.search("e00", 2, false))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void blankQueriesFindNothing() {
+        assertThat(cache.search("  ", 10, false)).isEmpty();
+        assertThat(cache.search(null, 10, false)).isEmpty();
+    }
+
+    @Test
+    void refreshReindexesAChangedEmployee() {
+        when(employeeRepository.findDirectoryRow(2L))
+                .thenReturn(Optional.of(row(2, "E002", "Bob", "Brown", EmployeeStatus.ACTIVE)));
+
+        cache.refresh(2L);
+
+        assertThat(cache.search("smithers", 10, false)).isEmpty();
+        assertThat(ids(cache.search("brown", 10, true))).containsExactly(2L);
+        // Other employees sharing the old prefix are still found
+        assertThat(ids(cache.search("smi", 10, true))).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void refreshAddsNewAndDropsRemovedEmployees() {
+        when(employeeRepository.findDirectoryRow(5L))
+                .thenReturn(Optional.of(row(5, "E005", "Dave", "Smart", EmployeeStatus.ACTIVE)));
+        when(employeeRepository.findDirectoryRow(1L)).thenReturn(Optional.empty());
+
+        cache.refresh(5L);
+        cache.refresh(1L);
+
+        assertThat(ids(cache.search("sm", 10, true))).containsExactly(2L, 5L, 4L);
+        assertThat(cache.search("alice", 10, false)).isEmpty();
+    }
+
+    @Test
+    void reloadReplacesTheWholeDirectory() {
+        when(employeeRepository.findAllDirectoryRows())
+                .thenReturn(List.of(row(7, "E007", "Erin", "Smith", EmployeeStatus.ACTIVE)));
+
+        cache.reload();
+
+        assertThat(ids(cache.search("smith", 10, false))).containsExactly(7L);
+    }
+
+    private static List<Long> ids(List<EmployeeDirectoryEntry> entries) {
+        return entries.stream().map(EmployeeDirectoryEntry::getId).toList();
+    }
+
+    private static DirectoryRow row(long id, String code, String firstName, String lastName, EmployeeStatus status) {
+        return new DirectoryRow() {
+            @Override
+            public Long getEmployeeId() {
+                return id;
+            }
+
+            @Override
+            public String getEmployeeCode() {
+                return code;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+
+            @Override
+            public String getDepartmentName() {
+                return "Engineering";
+            }
+
+            @Override
+            public String getDesignationName() {
+                return "Engineer";
+            }
+
+            @Override
+            public Boolean getActive() {
+                return true;
+            }
+
+            @Override
+            public EmployeeStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.workzen.service;
+
+import com.workzen.util.LeaveUnits;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeaveApplicationServiceTest {
+
+    @Test
+    void fullDayLeaveCountsEveryWorkingDay() {
+        assertThat(LeaveApplicationService.durationMinutes(3, false, null)).isEqualTo(3 * LeaveUnits.MINUTES_PER_DAY);
+        assertThat(LeaveApplicationService.durationMinutes(1, false, null)).isEqualTo(LeaveUnits.MINUTES_PER_DAY);
+    }
+
+    @Test
+    void halfDayIsHalfOfOneDay() {
+        assertThat(LeaveApplicationService.durationMinutes(1, true, null)).isEqualTo(LeaveUnits.HALF_DAY);
+    }
+
+    @Test
+    void hourlyLeaveIsConvertedToMinutes() {
+        assertThat(LeaveApplicationService.durationMinutes(1, false, 2.0)).isEqualTo(120);
+        assertThat(LeaveApplicationService.durationMinutes(1, false, 1.25)).isEqualTo(75);
+        assertThat(LeaveApplicationService.durationMinutes(1, false, 8.0)).isEqualTo(LeaveUnits.MINUTES_PER_DAY);
+    }
+
+    @Test
+    void partialDaysMustFallOnASingleWorkingDay() {
+        assertThatThrownBy(() -> LeaveApplicationService.durationMinutes(2, true, null))
+                .hasMessageContaining("single working day");
+        assertThatThrownBy(() -> LeaveApplicationService.durationMinutes(3, false, 2.0))
+                .hasMessageContaining("single working day");
+    }
+
+    @Test
+    void hoursMustBePositiveAndAtMostOneDay() {
+        assertThatThrownBy(() -> LeaveApplicationService.durationMinutes(1, false, 0.0))
+                .hasMessageContaining("Hours must be more than 0");
+        assertThatThrownBy(() -> LeaveApplicationService.durationMinutes(1, false, -1.0))
+                .hasMessageContaining("Hours must be more than 0");
+        assertThatThrownBy(() -> LeaveApplicationService.durationMinutes(1, false, 8.5))
+                .hasMessageContaining("at most 8");
+    }
+}
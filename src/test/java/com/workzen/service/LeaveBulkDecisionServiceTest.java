@@ -0,0 +1,190 @@
+package com.workzen.service;
+
+import com.workzen.entity.Employee;
+import com.workzen.entity.LeaveApplication;
+import com.workzen.entity.LeaveBalance;
+import com.workzen.entity.LeaveType;
+import com.workzen.enums.LeaveStatus;
+import com.workzen.enums.Role;
+import com.workzen.repository.LeaveApplicationRepository;
+import com.workzen.repository.LeaveBalanceRepository;
+import com.workzen.service.LeaveBulkDecisionService.BulkDecisionResult;
+import com.workzen.service.LeaveBulkDecisionService.ItemResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaveBulkDecisionServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private LeaveApplicationRepository leaveApplicationRepository;
+
+    @Mock
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private LeaveBulkDecisionService service;
+    private Employee approver;
+    private LeaveType annual;
+
+    @BeforeEach
+    void setUp() {
+        service = new LeaveBulkDecisionService(leaveApplicationRepository, leaveBalanceRepository, jdbcTemplate);
+        ReflectionTestUtils.setField(service, "maxItems", 5);
+        approver = employee(100);
+        approver.setRole(Role.HR_MANAGER);
+        approver.setEmail("hr@workzen.test");
+        approver.setFirstName("Harriet");
+        approver.setLastName("Reed");
+        annual = new LeaveType();
+        annual.setId(1L);
+    }
+
+    @Test
+    void everyIdGetsItsOwnResultInRequestOrder() {
+        Employee alice = employee(1);
+        Employee bob = employee(2);
+        LeaveApplication first = application(10, alice, 960, LeaveStatus.PENDING);
+        LeaveApplication second = application(11, alice, 960, LeaveStatus.PENDING);
+        LeaveApplication decided = application(12, alice, 480, LeaveStatus.APPROVED);
+        LeaveApplication own = application(14, approver, 480, LeaveStatus.PENDING);
+        LeaveApplication noBalance = application(15, bob, 480, LeaveStatus.PENDING);
+        when(leaveApplicationRepository.findAllByIdInForUpdate(anyCollection()))
+                .thenReturn(List.of(first, second, decided, own, noBalance));
+        when(leaveBalanceRepository.findByEmployeeIdInAndYearIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(balance(50, alice, 2025, 1440, false)));
+        // Lenient: the status, approval step and outbox batches go through the same method unstubbed
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("WITH updated AS"), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{1});
+
+        BulkDecisionResult result = service.approve(List.of(13L, 10L, 11L, 12L, 14L, 15L, 10L), approver);
+
+        assertThat(result.succeeded()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(5);
+        assertThat(result.items()).extracting(ItemResult::id).containsExactly(13L, 10L, 11L, 12L, 14L, 15L);
+        assertThat(result.items()).extracting(ItemResult::success)
+                .containsExactly(false, true, false, false, false, false);
+        assertThat(result.items().get(0).message()).contains("not found");
+        // The first application takes 2 of the 3 days, so the second no longer fits
+        assertThat(result.items().get(2).message()).contains("Insufficient leave balance");
+        assertThat(result.items().get(3).message()).contains("Only pending");
+        assertThat(result.items().get(4).message()).isEqualTo(LeaveApprovalWorkflowService.OWN_APPLICATION_MESSAGE);
+        assertThat(result.items().get(5).message()).isEqualTo("Leave balance not found");
+    }
+
+    @Test
+    void deductionLostToAConcurrentApprovalFailsThatItemOnly() {
+        Employee alice = employee(1);
+        when(leaveApplicationRepository.findAllByIdInForUpdate(anyCollection()))
+                .thenReturn(List.of(application(10, alice, 480, LeaveStatus.PENDING)));
+        when(leaveBalanceRepository.findByEmployeeIdInAndYearIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(balance(50, alice, 2025, 480, false)));
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("WITH updated AS"), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{0});
+
+        BulkDecisionResult result = service.approve(List.of(10L), approver);
+
+        assertThat(result.succeeded()).isZero();
+        assertThat(result.items().get(0).message()).isEqualTo("Insufficient leave balance");
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE leave_applications"), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    void rolledOverYearIsSettledAgainstNextYearsBalance() {
+        Employee alice = employee(1);
+        when(leaveApplicationRepository.findAllByIdInForUpdate(anyCollection()))
+                .thenReturn(List.of(application(10, alice, 480, LeaveStatus.PENDING)));
+        when(leaveBalanceRepository.findByEmployeeIdInAndYearIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(balance(50, alice, 2025, 0, true), balance(51, alice, 2026, 960, false)));
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("WITH updated AS"), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{1});
+
+        BulkDecisionResult result = service.approve(List.of(10L), approver);
+
+        assertThat(result.succeeded()).isEqualTo(1);
+        ArgumentCaptor<SqlParameterSource[]> deductions = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("WITH updated AS"), deductions.capture());
+        assertThat(deductions.getValue()).hasSize(1);
+        assertThat(deductions.getValue()[0].getValue("balanceId")).isEqualTo(51L);
+        assertThat(deductions.getValue()[0].getValue("minutes")).isEqualTo(480L);
+    }
+
+    @Test
+    void rejectSucceedsForEveryPendingApplication() {
+        Employee alice = employee(1);
+        when(leaveApplicationRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(
+                application(10, alice, 480, LeaveStatus.PENDING),
+                application(11, alice, 480, LeaveStatus.REJECTED)));
+
+        BulkDecisionResult result = service.reject(List.of(10L, 11L), approver, "Team offsite");
+
+        assertThat(result.items()).extracting(ItemResult::success).containsExactly(true, false);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE leave_applications"), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedSelections() {
+        assertThatThrownBy(() -> service.approve(Collections.emptyList(), approver))
+                .hasMessageContaining("No leave applications selected");
+        List<Long> tooMany = LongStream.rangeClosed(1, 6).boxed().toList();
+        assertThatThrownBy(() -> service.reject(tooMany, approver, null))
+                .hasMessageContaining("At most 5");
+    }
+
+    private static Employee employee(long id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        return employee;
+    }
+
+    private LeaveApplication application(long id, Employee employee, long minutes, LeaveStatus status) {
+        LeaveApplication application = LeaveApplication.builder()
+                .employee(employee)
+                .leaveType(annual)
+                .startDate(START)
+                .endDate(START)
+                .durationMinutes(minutes)
+                .status(status)
+                .build();
+        application.setId(id);
+        return application;
+    }
+
+    private LeaveBalance balance(long id, Employee employee, int year, long balanceMinutes, boolean rolledOver) {
+        LeaveBalance balance = LeaveBalance.builder()
+                .employee(employee)
+                .leaveType(annual)
+                .year(year)
+                .balanceMinutes(balanceMinutes)
+                .rolledOver(rolledOver)
+                .build();
+        balance.setId(id);
+        return balance;
+    }
+}
@@ -0,0 +1,155 @@
+package com.workzen.service;
+
+import com.workzen.dto.TeamLeaveCalendarDTO;
+import com.workzen.entity.Employee;
+import com.workzen.enums.LeaveStatus;
+import com.workzen.repository.LeaveApplicationRepository;
+import com.workzen.repository.LeaveApplicationRepository.LeaveInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TeamLeaveCalendarServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 5);
+
+    @Mock
+    private LeaveApplicationRepository leaveApplicationRepository;
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private TeamLeaveCalendarService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TeamLeaveCalendarService(leaveApplicationRepository, employeeService);
+        ReflectionTestUtils.setField(service, "defaultMinCoverage", 0.7);
+        ReflectionTestUtils.setField(service, "maxDays", 92);
+    }
+
+    @Test
+    void adjacentLeavesOfOneEmployeeCountOncePerDay() {
+        stubIntervals(
+                interval(1, "2025-01-01", "2025-01-02", LeaveStatus.APPROVED),
+                interval(1, "2025-01-03", "2025-01-04", LeaveStatus.APPROVED));
+
+        TeamLeaveCalendarDTO calendar = service.getCalendar(team(4), START, END, null);
+
+        List<TeamLeaveCalendarDTO.Day> days = calendar.getDays();
+        assertThat(days).hasSize(5);
+        for (int day = 0; day < 4; day++) {
+            assertThat(days.get(day).getOnLeave()).as("day %d", day).isEqualTo(1);
+            assertThat(days.get(day).getEmployeeIdsOnLeave()).containsExactly(1L);
+        }
+        assertThat(days.get(4).getOnLeave()).isZero();
+        assertThat(days.get(4).getCoverage()).isEqualTo(1.0);
+    }
+
+    @Test
+    void leavesReachingOutsideTheWindowAreClipped() {
+        stubIntervals(
+                interval(2, "2024-12-28", "2025-01-02", LeaveStatus.PENDING),
+                interval(3, "2025-01-05", "2025-01-10", LeaveStatus.APPROVED));
+
+        TeamLeaveCalendarDTO calendar = service.getCalendar(team(4), START, END, null);
+
+        List<TeamLeaveCalendarDTO.Day> days = calendar.getDays();
+        assertThat(days.get(0).getEmployeeIdsPending()).containsExactly(2L);
+        assertThat(days.get(1).getEmployeeIdsPending()).containsExactly(2L);
+        assertThat(days.get(2).getPending()).isZero();
+        assertThat(days.get(3).getOnLeave()).isZero();
+        assertThat(days.get(4).getEmployeeIdsOnLeave()).containsExactly(3L);
+    }
+
+    @Test
+    void pendingLeaveOfSomeoneAlreadyOffIsNotCountedTwice() {
+        stubIntervals(
+                interval(1, "2025-01-01", "2025-01-05", LeaveStatus.APPROVED),
+                interval(1, "2025-01-02", "2025-01-02", LeaveStatus.PENDING));
+
+        TeamLeaveCalendarDTO calendar = service.getCalendar(team(4), START, END, null);
+
+        TeamLeaveCalendarDTO.Day day = calendar.getDays().get(1);
+        assertThat(day.getOnLeave()).isEqualTo(1);
+        assertThat(day.getPending()).isZero();
+        assertThat(day.getProjectedCoverage()).isEqualTo(0.75);
+    }
+
+    @Test
+    void warnsOnDaysWhoseProjectedCoverageFallsBelowTheThreshold() {
+        stubIntervals(
+                interval(1, "2025-01-01", "2025-01-04", LeaveStatus.APPROVED),
+                interval(2, "2025-01-01", "2025-01-02", LeaveStatus.PENDING));
+
+        TeamLeaveCalendarDTO calendar = service.getCalendar(team(4), START, END, 0.6);
+
+        assertThat(calendar.getMinCoverage()).isEqualTo(0.6);
+        assertThat(calendar.getCoverageWarnings()).containsExactly(START, START.plusDays(1));
+        TeamLeaveCalendarDTO.Day first = calendar.getDays().get(0);
+        assertThat(first.getCoverage()).isEqualTo(0.75);
+        assertThat(first.getProjectedCoverage()).isEqualTo(0.5);
+        assertThat(first.isBelowCoverage()).isTrue();
+        assertThat(calendar.getDays().get(2).isBelowCoverage()).isFalse();
+    }
+
+    @Test
+    void rejectsWindowsLongerThanTheLimit() {
+        assertThatThrownBy(() -> service.getCalendar(team(1), START, START.plusDays(92), null))
+                .hasMessageContaining("92 days");
+        assertThatThrownBy(() -> service.getCalendar(team(1), END, START, null))
+                .hasMessageContaining("End date cannot be before start date");
+    }
+
+    private void stubIntervals(LeaveInterval... intervals) {
+        when(leaveApplicationRepository.findIntervalsByEmployeeIdsOverlapping(any(), any(), eq(START), eq(END)))
+                .thenReturn(List.of(intervals));
+    }
+
+    private static List<Employee> team(int size) {
+        return LongStream.rangeClosed(1, size).mapToObj(id -> {
+            Employee employee = new Employee();
+            employee.setId(id);
+            return employee;
+        }).toList();
+    }
+
+    private static LeaveInterval interval(long employeeId, String start, String end, LeaveStatus status) {
+        return new LeaveInterval() {
+            @Override
+            public Long getEmployeeId() {
+                return employeeId;
+            }
+
+            @Override
+            public LocalDate getStartDate() {
+                return LocalDate.parse(start);
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return LocalDate.parse(end);
+            }
+
+            @Override
+            public LeaveStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
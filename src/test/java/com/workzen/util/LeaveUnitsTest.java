@@ -0,0 +1,31 @@
+package com.workzen.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveUnitsTest {
+
+    @Test
+    void convertsDaysAndHoursToWholeMinutes() {
+        assertThat(LeaveUnits.fromDays(1)).isEqualTo(480);
+        assertThat(LeaveUnits.fromDays(1.5)).isEqualTo(720);
+        assertThat(LeaveUnits.fromDays(0)).isZero();
+        assertThat(LeaveUnits.fromHours(2.5)).isEqualTo(150);
+        assertThat(LeaveUnits.HALF_DAY).isEqualTo(240);
+    }
+
+    @Test
+    void roundsToTheNearestMinute() {
+        // 1/3 of a day is 160 minutes; the double on the way in must not truncate to 159
+        assertThat(LeaveUnits.fromDays(1.0 / 3)).isEqualTo(160);
+        assertThat(LeaveUnits.fromHours(0.999)).isEqualTo(60);
+    }
+
+    @Test
+    void convertsMinutesBackForDisplay() {
+        assertThat(LeaveUnits.toDays(240)).isEqualTo(0.5);
+        assertThat(LeaveUnits.toDays(LeaveUnits.fromDays(12.5))).isEqualTo(12.5);
+        assertThat(LeaveUnits.toHours(90)).isEqualTo(1.5);
+    }
+}